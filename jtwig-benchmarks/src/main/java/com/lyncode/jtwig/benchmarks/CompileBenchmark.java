@@ -0,0 +1,96 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.benchmarks;
+
+import com.lyncode.jtwig.JtwigTemplate;
+import com.lyncode.jtwig.exception.CompileException;
+import com.lyncode.jtwig.exception.ParseException;
+import com.lyncode.jtwig.tree.content.Content;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compiles (parsing included) chains of templates extending or including
+ * the next one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompileBenchmark {
+    @Param({"1", "8", "24"})
+    public int depth;
+
+    @Param({"extends", "include"})
+    public String chain;
+
+    private File directory;
+    private JtwigTemplate template;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = File.createTempFile("jtwig-compile", "");
+        directory.delete();
+        directory.mkdirs();
+        for (int i = 0; i < depth; i++) {
+            if ("extends".equals(chain))
+                write(i, "{% extends 'level" + (i + 1) + ".twig' %}{% block content %}Level " + i + "{% endblock %}");
+            else
+                write(i, "<div>Level " + i + "{% include 'level" + (i + 1) + ".twig' %}</div>");
+        }
+        write(depth, "<html><body>{% block content %}{% endblock %}{% block footer %}Footer{% endblock %}</body></html>");
+        template = new JtwigTemplate(new File(directory, "level0.twig"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (File file : directory.listFiles())
+            file.delete();
+        directory.delete();
+    }
+
+    @Benchmark
+    public Content compile() throws ParseException, CompileException {
+        return template.compile();
+    }
+
+    private void write(int level, String content) throws IOException {
+        FileOutputStream outputStream = new FileOutputStream(new File(directory, "level" + level + ".twig"));
+        try {
+            outputStream.write(content.getBytes());
+        } finally {
+            outputStream.close();
+        }
+    }
+}
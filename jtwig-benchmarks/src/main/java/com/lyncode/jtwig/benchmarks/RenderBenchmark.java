@@ -0,0 +1,150 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.benchmarks;
+
+import com.lyncode.jtwig.JtwigContext;
+import com.lyncode.jtwig.JtwigTemplate;
+import com.lyncode.jtwig.exception.CompileException;
+import com.lyncode.jtwig.exception.ParseException;
+import com.lyncode.jtwig.exception.RenderException;
+import com.lyncode.jtwig.tree.content.Content;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders precompiled templates over lists of the given size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark {
+    @Param({"100", "10000"})
+    public int size;
+
+    private List<Integer> numbers;
+    private List<String> names;
+    private List<Item> pojos;
+    private List<Map<String, Object>> maps;
+    private Content loop;
+    private Content properties;
+    private Content filterChain;
+    private Content escaping;
+
+    @State(Scope.Thread)
+    public static class Output {
+        private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        ByteArrayOutputStream reset() {
+            outputStream.reset();
+            return outputStream;
+        }
+    }
+
+    @Setup
+    public void setup() throws ParseException, CompileException {
+        numbers = new ArrayList<Integer>(size);
+        pojos = new ArrayList<Item>(size);
+        names = new ArrayList<String>(size);
+        maps = new ArrayList<Map<String, Object>>(size);
+        for (int i = 0; i < size; i++) {
+            Item item = new Item("Item <" + i + "> & co", i * 1.5);
+            numbers.add(i);
+            names.add(item.getName());
+            pojos.add(item);
+            Map<String, Object> map = new HashMap<String, Object>();
+            map.put("name", item.getName());
+            map.put("price", item.getPrice());
+            maps.add(map);
+        }
+        loop = compile("{% for i in items %}{{ i }},{% endfor %}");
+        properties = compile("{% for item in items %}{{ item.name }}: {{ item.price }};{% endfor %}");
+        filterChain = compile("{% for name in items %}{{ name | lower | capitalize | replace({co: 'company'}) | trim }}{% endfor %}");
+        escaping = compile("{% autoescape %}{% for item in items %}<li>{{ item.name }}</li>{% endfor %}{% endautoescape %}");
+    }
+
+    @Benchmark
+    public int loop(Output output) throws RenderException {
+        return render(loop, numbers, output);
+    }
+
+    @Benchmark
+    public int pojoProperties(Output output) throws RenderException {
+        return render(properties, pojos, output);
+    }
+
+    @Benchmark
+    public int mapProperties(Output output) throws RenderException {
+        return render(properties, maps, output);
+    }
+
+    @Benchmark
+    public int filterChain(Output output) throws RenderException {
+        return render(filterChain, names, output);
+    }
+
+    @Benchmark
+    public int escaping(Output output) throws RenderException {
+        return render(escaping, pojos, output);
+    }
+
+    private static Content compile(String template) throws ParseException, CompileException {
+        return new JtwigTemplate(template).compile();
+    }
+
+    private static int render(Content content, List<?> items, Output output) throws RenderException {
+        ByteArrayOutputStream outputStream = output.reset();
+        content.render(outputStream, new JtwigContext().withModelAttribute("items", items));
+        return outputStream.size();
+    }
+
+    public static class Item {
+        private final String name;
+        private final double price;
+
+        public Item(String name, double price) {
+            this.name = name;
+            this.price = price;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+    }
+}
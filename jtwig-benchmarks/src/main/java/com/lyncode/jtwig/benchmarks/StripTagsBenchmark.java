@@ -0,0 +1,70 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.benchmarks;
+
+import com.lyncode.jtwig.functions.util.HtmlUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StripTagsBenchmark {
+    @Param({"1024", "102400"})
+    public int size;
+
+    @Param({"", "<b><i>"})
+    public String allowed;
+
+    private String body;
+
+    @Setup
+    public void setup() {
+        StringBuilder builder = new StringBuilder(size + 256);
+        int paragraph = 0;
+        while (builder.length() < size) {
+            builder.append("<p class=\"body\">Paragraph ").append(paragraph++)
+                    .append(" with <b>bold</b>, <i>italic</i> and a <a href=\"/page/").append(paragraph)
+                    .append("\">link</a>.<!-- editor note --><br/></p>\n");
+        }
+        body = builder.toString();
+    }
+
+    @Benchmark
+    public String stateMachine() {
+        return HtmlUtils.stripTags(body, allowed);
+    }
+
+    @Benchmark
+    public String legacy() {
+        return LegacyHtmlUtils.stripTags(body, allowed);
+    }
+}
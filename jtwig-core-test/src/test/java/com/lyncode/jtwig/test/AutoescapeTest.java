@@ -0,0 +1,90 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.test;
+
+import com.lyncode.jtwig.JtwigContext;
+import com.lyncode.jtwig.JtwigTemplate;
+import com.lyncode.jtwig.exception.CompileException;
+import com.lyncode.jtwig.exception.ParseException;
+import com.lyncode.jtwig.exception.RenderException;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class AutoescapeTest {
+    @Test
+    public void shouldEscapeVariablesWithHtmlByDefault () throws ParseException, CompileException, RenderException {
+        JtwigTemplate template = new JtwigTemplate("{% autoescape %}{{ value }}{% endautoescape %}{{ value }}");
+        JtwigContext context = new JtwigContext();
+        context.withModelAttribute("value", "<b>");
+        assertThat(template.output(context), is("&lt;b&gt;<b>"));
+    }
+
+    @Test
+    public void shouldUseGivenStrategy () throws ParseException, CompileException, RenderException {
+        JtwigTemplate template = new JtwigTemplate("{% autoescape 'js' %}{{ value }}{% endautoescape %}");
+        JtwigContext context = new JtwigContext();
+        context.withModelAttribute("value", "'a'");
+        assertThat(template.output(context), is("\\'a\\'"));
+    }
+
+    @Test
+    public void shouldNotEscapeTwice () throws ParseException, CompileException, RenderException {
+        JtwigTemplate template = new JtwigTemplate("{% autoescape %}{{ value | escape }}{{ value | raw }}{{ value | upper | e }}{% endautoescape %}");
+        JtwigContext context = new JtwigContext();
+        context.withModelAttribute("value", "<b>");
+        assertThat(template.output(context), is("&lt;b&gt;<b>&lt;B&gt;"));
+    }
+
+    @Test
+    public void shouldNotEscapeEscapedVariablesTwice () throws ParseException, CompileException, RenderException {
+        JtwigTemplate template = new JtwigTemplate("{% autoescape %}{% set x = value|escape %}{% set y = value|lower|escape %}{{ x }}{{ y }}{{ x|length }}{% if x == '&lt;b&gt;' %}!{% endif %}{% endautoescape %}");
+        JtwigContext context = new JtwigContext();
+        context.withModelAttribute("value", "<b>");
+        assertThat(template.output(context), is("&lt;b&gt;&lt;b&gt;9!"));
+    }
+
+    @Test
+    public void shouldEscapeInsideNestedStructures () throws ParseException, CompileException, RenderException {
+        JtwigTemplate template = new JtwigTemplate("{% autoescape 'html' %}{% for item in list %}{% if item == '' %}-{% else %}{{ item }}{% endif %}{% endfor %}{% endautoescape %}");
+        JtwigContext context = new JtwigContext();
+        context.withModelAttribute("list", new String[]{"<a>", "", "&"});
+        assertThat(template.output(context), is("&lt;a&gt;-&amp;"));
+    }
+
+    @Test
+    public void shouldAllowDisablingInsideEscapedRegion () throws ParseException, CompileException, RenderException {
+        JtwigTemplate template = new JtwigTemplate("{% autoescape %}{% autoescape false %}{{ value }}{% endautoescape %}{{ value }}{% endautoescape %}");
+        JtwigContext context = new JtwigContext();
+        context.withModelAttribute("value", "<b>");
+        assertThat(template.output(context), is("<b>&lt;b&gt;"));
+    }
+
+    @Test
+    public void shouldNotEscapeNumbers () throws ParseException, CompileException, RenderException {
+        JtwigTemplate template = new JtwigTemplate("{% autoescape %}{{ 1 + 2 }}{{ value }}{% endautoescape %}");
+        JtwigContext context = new JtwigContext();
+        context.withModelAttribute("value", 5);
+        assertThat(template.output(context), is("35"));
+    }
+
+    @Test(expected = CompileException.class)
+    public void shouldFailOnUnknownStrategy () throws ParseException, CompileException, RenderException {
+        new JtwigTemplate("{% autoescape 'css' %}{{ value }}{% endautoescape %}").output(new JtwigContext());
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.test;
+
+import com.lyncode.jtwig.JtwigContext;
+import com.lyncode.jtwig.JtwigTemplate;
+import com.lyncode.jtwig.cache.InMemoryFragmentCache;
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CacheTest extends AbstractJtwigTest {
+    private InMemoryFragmentCache cache = new InMemoryFragmentCache(1024);
+
+    @Test
+    public void contentIsRenderedOncePerKey() throws Exception {
+        JtwigTemplate template = new JtwigTemplate("{% cache 'counter' %}{{ counter.next }}{% endcache %}");
+        Counter counter = new Counter();
+        assertThat(template.output(context(counter)), is("1"));
+        assertThat(template.output(context(counter)), is("1"));
+        assertThat(counter.value, is(1));
+    }
+
+    @Test
+    public void keyIsAnExpression() throws Exception {
+        JtwigTemplate template = new JtwigTemplate("{% cache concat('user-', id) 60 %}{{ counter.next }}{% endcache %}");
+        Counter counter = new Counter();
+        assertThat(template.output(context(counter).withModelAttribute("id", 1)), is("1"));
+        assertThat(template.output(context(counter).withModelAttribute("id", 2)), is("2"));
+        assertThat(template.output(context(counter).withModelAttribute("id", 1)), is("1"));
+    }
+
+    @Test
+    public void keysAreScopedToTheTemplate() throws Exception {
+        JtwigTemplate first = new JtwigTemplate("{% cache 'sidebar' %}A{% endcache %}");
+        JtwigTemplate second = new JtwigTemplate("{% cache 'sidebar' %}B{% endcache %}");
+        assertThat(first.output(context(new Counter())), is("A"));
+        assertThat(second.output(context(new Counter())), is("B"));
+        assertThat(new JtwigTemplate("{% cache 'sidebar' %}A{% endcache %}").output(context(new Counter())), is("A"));
+    }
+
+    @Test
+    public void keysAreScopedToTheLocale() throws Exception {
+        JtwigTemplate template = new JtwigTemplate("{% cache 'locale' %}{{ counter.next }}{% endcache %}");
+        Counter counter = new Counter();
+        assertThat(template.output(context(counter).withLocale(Locale.ENGLISH)), is("1"));
+        assertThat(template.output(context(counter).withLocale(Locale.FRENCH)), is("2"));
+        assertThat(template.output(context(counter).withLocale(Locale.ENGLISH)), is("1"));
+    }
+
+    @Test
+    public void invalidatingTheKeyOfATag() throws Exception {
+        JtwigTemplate template = new JtwigTemplate("{% cache 'invalidated' %}{{ counter.next }}{% endcache %}");
+        Counter counter = new Counter();
+        assertThat(template.output(context(counter)), is("1"));
+        cache.invalidate("invalidated");
+        assertThat(template.output(context(counter)), is("2"));
+    }
+
+    @Test
+    public void cachedContentIsEscaped() throws Exception {
+        JtwigTemplate template = new JtwigTemplate("{% autoescape %}{% cache 'html' %}{{ value }}{% endcache %}{% endautoescape %}");
+        assertThat(template.output(context(new Counter()).withModelAttribute("value", "<b>")), is("&lt;b&gt;"));
+    }
+
+    private JtwigContext context(Counter counter) {
+        return new JtwigContext()
+                .withModelAttribute("counter", counter)
+                .withFragmentCache(cache);
+    }
+
+    public static class Counter {
+        private int value;
+
+        public int getNext() {
+            return ++value;
+        }
+    }
+}
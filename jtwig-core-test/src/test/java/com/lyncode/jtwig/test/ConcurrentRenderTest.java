@@ -0,0 +1,71 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.test;
+
+import com.lyncode.jtwig.JtwigContext;
+import com.lyncode.jtwig.JtwigTemplate;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ConcurrentRenderTest extends AbstractJtwigTest {
+    private ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void independentBlocksAreRenderedConcurrentlyInDocumentOrder() throws Exception {
+        JtwigTemplate template = new JtwigTemplate("<{% block a %}{{ panel.value }}{% for i in 1..3 %}{{ i }}{% endfor %}{% endblock %}|{% block b %}{{ panel.value }}{% endblock %}>");
+        JtwigContext context = new JtwigContext()
+                .withModelAttribute("panel", new Panel(2))
+                .withExecutor(executor);
+        assertThat(template.output(context), is("<ok123|ok>"));
+    }
+
+    @Test
+    public void blocksSettingVariablesAreRenderedInSequence() throws Exception {
+        JtwigTemplate template = new JtwigTemplate("{% set x = 1 %}{% block a %}{{ x }}{% set x = 2 %}{% endblock %}{% block b %}{{ x }}{% endblock %}{% set x = 3 %}{{ x }}");
+        JtwigContext context = new JtwigContext().withExecutor(executor);
+        assertThat(template.output(context), is("123"));
+    }
+
+    public static class Panel {
+        private final CyclicBarrier barrier;
+
+        public Panel(int panels) {
+            this.barrier = new CyclicBarrier(panels);
+        }
+
+        /**
+         * Only returns once every panel asked for its value.
+         */
+        public String getValue() throws Exception {
+            barrier.await(5, TimeUnit.SECONDS);
+            return "ok";
+        }
+    }
+}
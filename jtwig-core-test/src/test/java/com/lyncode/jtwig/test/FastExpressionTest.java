@@ -43,4 +43,44 @@ public class FastExpressionTest {
         JtwigContext context = new JtwigContext();
         assertThat(template.output(context), is("1,2,3"));
     }
+
+    @Test
+    public void shouldStreamEscapedOutput () throws ParseException, CompileException, RenderException {
+        JtwigTemplate template = new JtwigTemplate("{{ value | escape }}{{ escape(value, 'js') }}");
+        JtwigContext context = new JtwigContext();
+        context.withModelAttribute("value", "<a href='x'>");
+        assertThat(template.output(context), is("&lt;a href='x'&gt;<a href=\\'x\\'>"));
+    }
+
+    @Test
+    public void shouldStreamJsonOutput () throws ParseException, CompileException, RenderException {
+        JtwigTemplate template = new JtwigTemplate("var state = {{ json_encode(list) }};{{ list | json_encode }}");
+        JtwigContext context = new JtwigContext();
+        context.withModelAttribute("list", new String[]{"a", "b"});
+        assertThat(template.output(context), is("var state = [\"a\",\"b\"];[\"a\",\"b\"]"));
+    }
+
+    @Test
+    public void shouldFuseStringFilters () throws ParseException, CompileException, RenderException {
+        JtwigTemplate template = new JtwigTemplate("{{ value | trim | lower | capitalize | escape }}|{{ value | upper | nl2br | trim | url_encode }}|{% set x = value | title | trim %}{{ x }}");
+        JtwigContext context = new JtwigContext();
+        context.withModelAttribute("value", "  hello <WORLD>\n ");
+        assertThat(template.output(context), is("Hello &lt;world&gt;|HELLO+%3CWORLD%3E%3Cbr+%2F%3E|Hello <WORLD>"));
+    }
+
+    @Test
+    public void shouldNotFuseAsciiOnlyFiltersOnOtherInput () throws ParseException, CompileException, RenderException {
+        JtwigTemplate template = new JtwigTemplate("{% set x = value | trim | upper | escape %}{{ x == expected }}");
+        JtwigContext context = new JtwigContext();
+        context.withModelAttribute("value", " stra\u00dfe ");
+        context.withModelAttribute("expected", "STRASSE");
+        assertThat(template.output(context), is("true"));
+    }
+
+    @Test
+    public void shouldKeepConcatenationsLazyUntilNeeded () throws ParseException, CompileException, RenderException {
+        JtwigTemplate template = new JtwigTemplate("{% set x = '' %}{% for i in 1..3 %}{% set x = concat(x, i, ',') %}{% endfor %}{{ x }}|{{ x == '1,2,3,' }}|{{ [x, 'y'] | join(x | trim) }}|{{ x | upper | url_encode }}");
+        JtwigContext context = new JtwigContext();
+        assertThat(template.output(context), is("1,2,3,|true|1,2,3,1,2,3,y|1%2C2%2C3%2C"));
+    }
 }
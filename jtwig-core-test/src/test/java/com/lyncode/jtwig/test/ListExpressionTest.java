@@ -40,4 +40,11 @@ public class ListExpressionTest extends AbstractJtwigTest {
         JtwigContext context = new JtwigContext();
         assertThat(template.output(context), is("abc"));
     }
+
+    @Test
+    public void sortingAndGrouping () throws ParseException, CompileException, RenderException {
+        JtwigTemplate template = new JtwigTemplate("{{ [3, 1, 2, 1] | unique | sort | join(',') }}|{% for item in [{name: 'b', kind: 'x'}, {name: 'a', kind: 'y'}, {name: 'c', kind: 'x'}] | sort_by('name') %}{{ item.name }}{% endfor %}|{% for kind, items in [{name: 'b', kind: 'x'}, {name: 'a', kind: 'y'}, {name: 'c', kind: 'x'}] | group_by('kind') %}{{ kind }}={{ items | length }};{% endfor %}");
+        JtwigContext context = new JtwigContext();
+        assertThat(template.output(context), is("1,2,3|abc|x=2;y=1;"));
+    }
 }
@@ -53,4 +53,12 @@ public class MapExpressionTest extends AbstractJtwigTest {
         context.withModelAttribute("map", value);
         assertThat(template.output(context), is("1"));
     }
+
+    @Test
+    public void replaceWithLiteralMap () throws ParseException, CompileException, RenderException {
+        JtwigTemplate template = new JtwigTemplate("{% for name in names %}{{ 'Hello you!' | replace({you: name}) }}{{ ' ab abc' | replace({ab: 'x', abc: 'y'}) }}{% endfor %}");
+        JtwigContext context = new JtwigContext();
+        context.withModelAttribute("names", new String[]{"Joao", "Ana"});
+        assertThat(template.output(context), is("Hello Joao! x yHello Ana! x y"));
+    }
 }
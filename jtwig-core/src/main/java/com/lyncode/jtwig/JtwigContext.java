@@ -16,12 +16,29 @@
 
 package com.lyncode.jtwig;
 
+import com.lyncode.jtwig.budget.RenderBudget;
+import com.lyncode.jtwig.budget.RenderLimits;
+import com.lyncode.jtwig.cache.FragmentCache;
 import com.lyncode.jtwig.exception.CalculateException;
 import com.lyncode.jtwig.functions.Function;
+import com.lyncode.jtwig.functions.exceptions.FunctionException;
 import com.lyncode.jtwig.functions.exceptions.FunctionNotFoundException;
 import com.lyncode.jtwig.functions.repository.AbstractFunctionRepository;
-import com.lyncode.jtwig.functions.repository.DefaultFunctionRepository;
+import com.lyncode.jtwig.functions.repository.FunctionDeclaration;
+import com.lyncode.jtwig.functions.repository.FunctionResultCache;
+import com.lyncode.jtwig.metrics.Metrics;
 import com.lyncode.jtwig.tree.api.Calculable;
+import com.lyncode.jtwig.util.RopeOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+
+import static com.lyncode.jtwig.cache.InMemoryFragmentCache.defaultFragmentCache;
+import static com.lyncode.jtwig.functions.repository.DefaultFunctionRepository.defaultFunctionRepository;
+import static com.lyncode.jtwig.functions.repository.FunctionDeclaration.Scope.LOCALE;
+import static com.lyncode.jtwig.functions.repository.FunctionDeclaration.Scope.REQUEST;
 
 public class JtwigContext {
     public static JtwigContext context () {
@@ -30,6 +47,12 @@ public class JtwigContext {
 
     private AbstractFunctionRepository functionRepository;
     private JtwigModelMap modelMap;
+    private Locale locale = Locale.getDefault();
+    private FunctionResultCache requestCache;
+    private ExecutorService executor;
+    private FragmentCache fragmentCache = defaultFragmentCache();
+    private RenderBudget budget;
+    private int depth;
 
     public JtwigContext(JtwigModelMap modelMap, AbstractFunctionRepository functionRepository) {
         this.functionRepository = functionRepository;
@@ -37,12 +60,12 @@ public class JtwigContext {
     }
 
     public JtwigContext(JtwigModelMap modelMap) {
-        this.functionRepository = new DefaultFunctionRepository();
+        this.functionRepository = defaultFunctionRepository();
         this.modelMap = modelMap;
     }
 
     public JtwigContext() {
-        this.functionRepository = new DefaultFunctionRepository();
+        this.functionRepository = defaultFunctionRepository();
         this.modelMap = new JtwigModelMap();
     }
 
@@ -51,10 +74,112 @@ public class JtwigContext {
         return this;
     }
 
+    public JtwigContext withLocale(Locale locale) {
+        this.locale = locale;
+        return this;
+    }
+
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * Enables rendering independent parts of the template (included templates
+     * and blocks which don't set variables) concurrently on the given executor.
+     */
+    public JtwigContext withExecutor(ExecutorService executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * The cache storing the output of cache tags.
+     */
+    public JtwigContext withFragmentCache(FragmentCache fragmentCache) {
+        this.fragmentCache = fragmentCache;
+        return this;
+    }
+
+    public FragmentCache getFragmentCache() {
+        return fragmentCache;
+    }
+
+    /**
+     * Limits each render with this context to the given resources.
+     */
+    public JtwigContext withLimits(RenderLimits limits) {
+        this.budget = limits == null ? null : limits.budget();
+        return this;
+    }
+
+    public RenderBudget getBudget() {
+        return budget;
+    }
+
+    /**
+     * Enters a nested content, returning its depth (one being the template itself).
+     */
+    public int enter() {
+        return ++depth;
+    }
+
+    public void exit() {
+        depth--;
+    }
+
+    /**
+     * A context to render part of the template concurrently with this one.
+     * It sees a copy of the current model, so its writes stay local, and it
+     * renders sequentially.
+     */
+    public JtwigContext fork() {
+        if (requestCache == null) requestCache = new FunctionResultCache();
+        JtwigContext fork = new JtwigContext(modelMap.copy(), functionRepository);
+        fork.locale = locale;
+        fork.requestCache = requestCache;
+        fork.fragmentCache = fragmentCache;
+        fork.budget = budget;
+        fork.depth = depth;
+        return fork;
+    }
+
     public Function function(String name) throws FunctionNotFoundException {
         return functionRepository.retrieve(name);
     }
 
+    /**
+     * Executes a function called with constant arguments, reusing a previous
+     * result if the function is pure.
+     */
+    public Object execute(String name, Object... arguments) throws FunctionNotFoundException, FunctionException {
+        Function function = function(name);
+        FunctionDeclaration.Scope scope = functionRepository.scope(name);
+        if (scope == null) return RopeOperations.execute(name, function, arguments);
+
+        FunctionResultCache cache = functionRepository.getResultCache();
+        if (scope == REQUEST) {
+            if (requestCache == null) requestCache = new FunctionResultCache();
+            cache = requestCache;
+        }
+
+        List<Object> key = new ArrayList<Object>(arguments.length + 2);
+        key.add(name);
+        if (scope == LOCALE) key.add(locale);
+        for (Object argument : arguments) key.add(argument);
+
+        Object result = cache.get(key);
+        Metrics.metrics().cacheAccessed("function", result != null);
+        if (result == null) {
+            result = RopeOperations.execute(name, function, arguments);
+            cache.put(key, result);
+        }
+        return result;
+    }
+
     public Object map(String key) {
         return modelMap.get(key);
     }
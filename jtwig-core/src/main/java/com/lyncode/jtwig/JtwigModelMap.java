@@ -36,6 +36,10 @@ public class JtwigModelMap {
         return model.get(key);
     }
 
+    public JtwigModelMap copy () {
+        return new JtwigModelMap().add(model);
+    }
+
     public JtwigModelMap add(Map<String, Object> model) {
         this.model.putAll(model);
         return this;
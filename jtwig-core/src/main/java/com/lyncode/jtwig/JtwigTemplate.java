@@ -16,21 +16,26 @@
 
 package com.lyncode.jtwig;
 
+import com.google.common.io.CountingOutputStream;
 import com.lyncode.jtwig.exception.CompileException;
 import com.lyncode.jtwig.exception.ParseException;
 import com.lyncode.jtwig.exception.RenderException;
+import com.lyncode.jtwig.metrics.Metrics;
 import com.lyncode.jtwig.parser.JtwigParser;
+import com.lyncode.jtwig.profile.ProfileNode;
+import com.lyncode.jtwig.profile.Profiler;
 import com.lyncode.jtwig.resource.FileJtwigResource;
 import com.lyncode.jtwig.resource.JtwigResource;
 import com.lyncode.jtwig.resource.StringJtwigResource;
 import com.lyncode.jtwig.tree.content.Content;
+import com.lyncode.jtwig.util.RenderBuffers;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.OutputStream;
 
 public class JtwigTemplate {
     private JtwigResource resource;
+    private volatile int expectedSize = 0;
 
     public JtwigTemplate(JtwigResource resource) {
         this.resource = resource;
@@ -45,15 +50,60 @@ public class JtwigTemplate {
     }
 
     public void output (OutputStream outputStream, JtwigContext context) throws ParseException, CompileException, RenderException {
-        JtwigParser.parse(resource)
-                .compile(resource)
-                .render(outputStream, context);
+        Content content = compile();
+        long start = Metrics.start();
+        if (start == 0) {
+            content.render(outputStream, context);
+            return;
+        }
+        CountingOutputStream countingOutputStream = new CountingOutputStream(outputStream);
+        content.render(countingOutputStream, context);
+        Metrics.metrics().rendered(String.valueOf(resource), System.nanoTime() - start, countingOutputStream.getCount());
     }
 
     public String output (JtwigContext context) throws ParseException, CompileException, RenderException {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        output(outputStream, context);
-        return outputStream.toString();
+        RenderBuffers.Buffer buffer = RenderBuffers.acquire(expectedSize());
+        try {
+            output(buffer, context);
+            record(buffer.size());
+            return buffer.toString();
+        } finally {
+            RenderBuffers.release(buffer);
+        }
+    }
+
+    public byte[] outputBytes (JtwigContext context) throws ParseException, CompileException, RenderException {
+        RenderBuffers.Buffer buffer = RenderBuffers.acquire(expectedSize());
+        try {
+            output(buffer, context);
+            record(buffer.size());
+            return buffer.toByteArray();
+        } finally {
+            RenderBuffers.release(buffer);
+        }
+    }
+
+    /**
+     * Renders a freshly compiled copy of the template with each node
+     * measured, returning where the time went.
+     */
+    public ProfileNode profile (OutputStream outputStream, JtwigContext context) throws ParseException, CompileException, RenderException {
+        Profiler profiler = new Profiler(String.valueOf(resource));
+        profiler.render(profiler.decorate(compile()), outputStream, context);
+        return profiler.getRoot();
+    }
+
+    /**
+     * Expected output size, a bit over the moving average of previous renders.
+     */
+    private int expectedSize () {
+        int size = expectedSize;
+        return size + size / 8;
+    }
+
+    private void record (int size) {
+        int previous = expectedSize;
+        expectedSize = previous == 0 ? size : (previous * 3 + size) / 4;
     }
 
 
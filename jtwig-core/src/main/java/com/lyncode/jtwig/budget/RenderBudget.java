@@ -0,0 +1,118 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.budget;
+
+import com.lyncode.jtwig.exception.RenderLimitExceededException;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.lyncode.jtwig.exception.RenderLimitExceededException.Limit;
+
+/**
+ * Resources used by a render, checked against its limits. Shared by the
+ * contexts rendering parts of the same template concurrently.
+ */
+public class RenderBudget {
+    private static final int TIME_CHECK_INTERVAL = 0xFF;
+
+    private final RenderLimits limits;
+    private final AtomicLong iterations = new AtomicLong();
+    private final AtomicLong outputBytes = new AtomicLong();
+    private volatile long deadline;
+    private volatile RenderLimitExceededException exceeded;
+
+    public RenderBudget(RenderLimits limits) {
+        this.limits = limits;
+    }
+
+    /**
+     * Resets the budget as a new render starts.
+     */
+    public void start() {
+        iterations.set(0);
+        outputBytes.set(0);
+        exceeded = null;
+        deadline = limits.getTimeout() > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(limits.getTimeout()) : 0;
+    }
+
+    public void iterate() throws RenderLimitExceededException {
+        long count = iterations.incrementAndGet();
+        if (limits.getMaxIterations() > 0 && count > limits.getMaxIterations())
+            throw exceed(Limit.ITERATIONS, limits.getMaxIterations());
+        if ((count & TIME_CHECK_INTERVAL) == 0)
+            checkTime();
+    }
+
+    public void enter(int depth) throws RenderLimitExceededException {
+        if (limits.getMaxDepth() > 0 && depth > limits.getMaxDepth())
+            throw exceed(Limit.DEPTH, limits.getMaxDepth());
+        checkTime();
+    }
+
+    public void checkTime() throws RenderLimitExceededException {
+        if (deadline != 0 && System.nanoTime() - deadline > 0)
+            throw exceed(Limit.TIME, limits.getTimeout());
+    }
+
+    /**
+     * The given stream, counting what's written to it against the output limit.
+     */
+    public OutputStream limit(OutputStream outputStream) {
+        if (limits.getMaxOutputBytes() <= 0) return outputStream;
+        return new LimitedOutputStream(outputStream);
+    }
+
+    /**
+     * The first limit exceeded since the render started, if any.
+     */
+    public RenderLimitExceededException getExceeded() {
+        return exceeded;
+    }
+
+    private RenderLimitExceededException exceed(Limit limit, long maximum) {
+        if (exceeded == null)
+            exceeded = new RenderLimitExceededException(limit, maximum);
+        return exceeded;
+    }
+
+    private class LimitedOutputStream extends FilterOutputStream {
+        private LimitedOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            count(1);
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            count(len);
+            out.write(b, off, len);
+        }
+
+        private void count(int length) throws IOException {
+            if (outputBytes.addAndGet(length) > limits.getMaxOutputBytes())
+                throw new IOException(exceed(Limit.OUTPUT_BYTES, limits.getMaxOutputBytes()));
+        }
+    }
+}
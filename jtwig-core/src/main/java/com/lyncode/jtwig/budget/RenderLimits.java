@@ -0,0 +1,80 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.budget;
+
+/**
+ * Maximum resources a single render may use, zero meaning no limit.
+ */
+public class RenderLimits {
+    public static RenderLimits limits () {
+        return new RenderLimits();
+    }
+
+    private long maxIterations;
+    private long maxOutputBytes;
+    private int maxDepth;
+    private long timeout;
+
+    /**
+     * Total loop iterations, across every loop of the template.
+     */
+    public RenderLimits withMaxIterations(long maxIterations) {
+        this.maxIterations = maxIterations;
+        return this;
+    }
+
+    public RenderLimits withMaxOutputBytes(long maxOutputBytes) {
+        this.maxOutputBytes = maxOutputBytes;
+        return this;
+    }
+
+    /**
+     * Nesting of blocks, loops, conditions and included templates.
+     */
+    public RenderLimits withMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+    /**
+     * Wall clock milliseconds.
+     */
+    public RenderLimits withTimeout(long timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    public long getMaxIterations() {
+        return maxIterations;
+    }
+
+    public long getMaxOutputBytes() {
+        return maxOutputBytes;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    public RenderBudget budget() {
+        return new RenderBudget(this);
+    }
+}
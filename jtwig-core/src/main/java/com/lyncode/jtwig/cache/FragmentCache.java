@@ -0,0 +1,45 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.cache;
+
+import com.lyncode.jtwig.exception.RenderException;
+
+/**
+ * Storage for the rendered output of cache tags, stored under a
+ * {@link FragmentKey}.
+ */
+public interface FragmentCache {
+    interface Renderer {
+        byte[] render () throws RenderException;
+    }
+
+    /**
+     * The cached fragment for the given key, rendering (and storing) it if
+     * missing or expired. A time to live of zero or less never expires.
+     * Implementations should render a missing fragment only once when
+     * concurrently requested.
+     */
+    byte[] get (Object key, long ttlMillis, Renderer renderer) throws RenderException;
+
+    /**
+     * Invalidates the fragment stored under the given key or, given the key
+     * of a cache tag, its fragments in every template and locale.
+     */
+    void invalidate (Object key);
+
+    void invalidateAll ();
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.cache;
+
+import com.google.common.base.Objects;
+import com.lyncode.jtwig.resource.JtwigResource;
+
+import java.util.Locale;
+
+/**
+ * The key a cache tag stores its fragment under: the key given to the tag,
+ * scoped to the template declaring it and the locale rendered.
+ */
+public class FragmentKey {
+    private final JtwigResource template;
+    private final Locale locale;
+    private final Object key;
+
+    public FragmentKey(JtwigResource template, Locale locale, Object key) {
+        this.template = template;
+        this.locale = locale;
+        this.key = key;
+    }
+
+    public JtwigResource getTemplate() {
+        return template;
+    }
+
+    public Locale getLocale() {
+        return locale;
+    }
+
+    public Object getKey() {
+        return key;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FragmentKey that = (FragmentKey) o;
+        return Objects.equal(key, that.key)
+                && Objects.equal(template, that.template)
+                && Objects.equal(locale, that.locale);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(template, locale, key);
+    }
+
+    @Override
+    public String toString() {
+        return template + " " + locale + " " + key;
+    }
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.cache;
+
+import com.google.common.base.Objects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.lyncode.jtwig.exception.RenderException;
+
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Fragment cache bounded by the total size of the stored fragments, and of
+ * their keys when these are text, least recently used ones being evicted
+ * first.
+ */
+public class InMemoryFragmentCache implements FragmentCache {
+    public static final long DEFAULT_MAXIMUM_BYTES = 16 * 1024 * 1024;
+
+    private static final InMemoryFragmentCache DEFAULT = new InMemoryFragmentCache(DEFAULT_MAXIMUM_BYTES);
+
+    /**
+     * The process wide cache used unless configured otherwise.
+     */
+    public static InMemoryFragmentCache defaultFragmentCache() {
+        return DEFAULT;
+    }
+
+    private final Cache<Object, Fragment> fragments;
+
+    public InMemoryFragmentCache(long maximumBytes) {
+        this.fragments = CacheBuilder.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher(new Weigher<Object, Fragment>() {
+                    @Override
+                    public int weigh(Object key, Fragment fragment) {
+                        int weight = fragment.content.length;
+                        if (key instanceof CharSequence)
+                            weight += 2 * ((CharSequence) key).length();
+                        return weight;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public byte[] get(Object key, long ttlMillis, Renderer renderer) throws RenderException {
+        try {
+            Loader loader = new Loader(renderer, ttlMillis);
+            Fragment fragment = fragments.get(key, loader);
+            if (fragment != loader.loaded && fragment.isExpired()) {
+                fragments.asMap().remove(key, fragment);
+                fragment = fragments.get(key, loader);
+            }
+            return fragment.content;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RenderException)
+                throw (RenderException) e.getCause();
+            throw new RenderException(e.getCause());
+        } catch (UncheckedExecutionException e) {
+            throw new RenderException(e.getCause());
+        }
+    }
+
+    @Override
+    public void invalidate(Object key) {
+        fragments.invalidate(key);
+        Iterator<Object> keys = fragments.asMap().keySet().iterator();
+        while (keys.hasNext()) {
+            Object stored = keys.next();
+            if (stored instanceof FragmentKey && Objects.equal(((FragmentKey) stored).getKey(), key))
+                keys.remove();
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        fragments.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return fragments.stats();
+    }
+
+    private static class Loader implements Callable<Fragment> {
+        private final Renderer renderer;
+        private final long ttlMillis;
+        private Fragment loaded;
+
+        private Loader(Renderer renderer, long ttlMillis) {
+            this.renderer = renderer;
+            this.ttlMillis = ttlMillis;
+        }
+
+        @Override
+        public Fragment call() throws RenderException {
+            loaded = new Fragment(renderer.render(), ttlMillis);
+            return loaded;
+        }
+    }
+
+    private static class Fragment {
+        private final byte[] content;
+        private final long expiresAt;
+
+        private Fragment(byte[] content, long ttlMillis) {
+            this.content = content;
+            this.expiresAt = ttlMillis > 0 ? System.currentTimeMillis() + ttlMillis : Long.MAX_VALUE;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.exception;
+
+public class RenderLimitExceededException extends RenderException {
+    public enum Limit {
+        ITERATIONS,
+        OUTPUT_BYTES,
+        DEPTH,
+        INCLUDE_DEPTH,
+        TIME
+    }
+
+    private final Limit limit;
+
+    public RenderLimitExceededException(Limit limit, long maximum) {
+        super("Render limit exceeded: "+limit+" over "+maximum);
+        this.limit = limit;
+    }
+
+    public Limit getLimit() {
+        return limit;
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histogram with power of two microsecond buckets, so recording is
+ * a couple of atomic increments and percentiles are exact to a factor of two.
+ */
+public class Histogram {
+    private static final int BUCKETS = 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record (long nanos) {
+        long micros = nanos / 1000;
+        buckets.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros)));
+        count.incrementAndGet();
+        total.addAndGet(nanos);
+        long current = max.get();
+        while (nanos > current && !max.compareAndSet(current, nanos))
+            current = max.get();
+    }
+
+    public long getCount () {
+        return count.get();
+    }
+
+    public double getMeanMillis () {
+        long count = getCount();
+        return count == 0 ? 0 : total.get() / (double) count / 1000000;
+    }
+
+    public double getMaxMillis () {
+        return max.get() / 1000000.0;
+    }
+
+    /**
+     * Upper bound of the bucket holding the given percentile (0 to 1).
+     */
+    public double percentileMillis (double percentile) {
+        long count = getCount();
+        if (count == 0) return 0;
+        long rank = (long) Math.ceil(percentile * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank)
+                return Math.min((1L << i) / 1000.0, getMaxMillis());
+        }
+        return getMaxMillis();
+    }
+
+    public TimerStats stats () {
+        return new TimerStats(getCount(), getMeanMillis(), percentileMillis(0.5),
+                percentileMillis(0.95), percentileMillis(0.99), getMaxMillis());
+    }
+}
@@ -0,0 +1,201 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.metrics;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps latency histograms and counters in memory, exposed as an MXBean.
+ * Renders slower than the threshold are logged.
+ */
+public class JmxMetrics implements JtwigMetrics, JmxMetricsMXBean {
+    private static Logger log = LogManager.getLogger(JmxMetrics.class);
+    public static final String OBJECT_NAME = "com.lyncode.jtwig:type=Metrics";
+    public static final long DEFAULT_SLOW_RENDER_THRESHOLD = 1000;
+
+    /**
+     * Creates the metrics, registers them in the platform MBean server and
+     * makes the engine use them.
+     */
+    public static JmxMetrics install () throws JMException {
+        JmxMetrics metrics = new JmxMetrics();
+        metrics.register(ManagementFactory.getPlatformMBeanServer());
+        Metrics.setMetrics(metrics);
+        return metrics;
+    }
+
+    private final ConcurrentMap<String, Histogram> parseTimes = new ConcurrentHashMap<String, Histogram>();
+    private final ConcurrentMap<String, Histogram> compileTimes = new ConcurrentHashMap<String, Histogram>();
+    private final ConcurrentMap<String, Histogram> renderTimes = new ConcurrentHashMap<String, Histogram>();
+    private final ConcurrentMap<String, AtomicLong> outputBytes = new ConcurrentHashMap<String, AtomicLong>();
+    private final ConcurrentMap<String, Histogram> functionTimes = new ConcurrentHashMap<String, Histogram>();
+    private final ConcurrentMap<String, AtomicLong> cacheHits = new ConcurrentHashMap<String, AtomicLong>();
+    private final ConcurrentMap<String, AtomicLong> cacheMisses = new ConcurrentHashMap<String, AtomicLong>();
+    private volatile long slowRenderThreshold = DEFAULT_SLOW_RENDER_THRESHOLD;
+
+    public void register (MBeanServer server) throws JMException {
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (server.isRegistered(name))
+            server.unregisterMBean(name);
+        server.registerMBean(this, name);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void parsed(String template, long time) {
+        histogram(parseTimes, template).record(time);
+    }
+
+    @Override
+    public void compiled(String template, long time) {
+        histogram(compileTimes, template).record(time);
+    }
+
+    @Override
+    public void rendered(String template, long time, long bytes) {
+        histogram(renderTimes, template).record(time);
+        counter(outputBytes, template).addAndGet(bytes);
+        long millis = TimeUnit.NANOSECONDS.toMillis(time);
+        if (slowRenderThreshold > 0 && millis >= slowRenderThreshold)
+            log.warn("Slow render of " + template + ": " + millis + "ms, " + bytes + " bytes");
+    }
+
+    @Override
+    public void functionCalled(String function, long time) {
+        histogram(functionTimes, function).record(time);
+    }
+
+    @Override
+    public void cacheAccessed(String cache, boolean hit) {
+        counter(hit ? cacheHits : cacheMisses, cache).incrementAndGet();
+    }
+
+    @Override
+    public Map<String, TimerStats> getParseTimes() {
+        return stats(parseTimes);
+    }
+
+    @Override
+    public Map<String, TimerStats> getCompileTimes() {
+        return stats(compileTimes);
+    }
+
+    @Override
+    public Map<String, TimerStats> getRenderTimes() {
+        return stats(renderTimes);
+    }
+
+    @Override
+    public Map<String, Long> getOutputBytes() {
+        Map<String, Long> result = new TreeMap<String, Long>();
+        for (Map.Entry<String, AtomicLong> entry : outputBytes.entrySet())
+            result.put(entry.getKey(), entry.getValue().get());
+        return result;
+    }
+
+    @Override
+    public Map<String, TimerStats> getFunctionTimes() {
+        return stats(functionTimes);
+    }
+
+    @Override
+    public Map<String, Double> getCacheHitRates() {
+        Map<String, Double> result = new TreeMap<String, Double>();
+        for (String cache : cacheHits.keySet())
+            result.put(cache, 0.0);
+        for (String cache : cacheMisses.keySet())
+            result.put(cache, 0.0);
+        for (String cache : result.keySet()) {
+            long hits = count(cacheHits, cache);
+            long total = hits + count(cacheMisses, cache);
+            result.put(cache, total == 0 ? 0 : hits / (double) total);
+        }
+        return result;
+    }
+
+    @Override
+    public long getSlowRenderThreshold() {
+        return slowRenderThreshold;
+    }
+
+    /**
+     * Milliseconds from which renders are logged, zero to disable.
+     */
+    @Override
+    public void setSlowRenderThreshold(long millis) {
+        this.slowRenderThreshold = millis;
+    }
+
+    @Override
+    public void reset() {
+        parseTimes.clear();
+        compileTimes.clear();
+        renderTimes.clear();
+        outputBytes.clear();
+        functionTimes.clear();
+        cacheHits.clear();
+        cacheMisses.clear();
+    }
+
+    private static Histogram histogram (ConcurrentMap<String, Histogram> histograms, String name) {
+        Histogram histogram = histograms.get(name);
+        if (histogram == null) {
+            histogram = new Histogram();
+            Histogram previous = histograms.putIfAbsent(name, histogram);
+            if (previous != null) histogram = previous;
+        }
+        return histogram;
+    }
+
+    private static AtomicLong counter (ConcurrentMap<String, AtomicLong> counters, String name) {
+        AtomicLong counter = counters.get(name);
+        if (counter == null) {
+            counter = new AtomicLong();
+            AtomicLong previous = counters.putIfAbsent(name, counter);
+            if (previous != null) counter = previous;
+        }
+        return counter;
+    }
+
+    private static long count (ConcurrentMap<String, AtomicLong> counters, String name) {
+        AtomicLong counter = counters.get(name);
+        return counter == null ? 0 : counter.get();
+    }
+
+    private static Map<String, TimerStats> stats (ConcurrentMap<String, Histogram> histograms) {
+        Map<String, TimerStats> result = new TreeMap<String, TimerStats>();
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet())
+            result.put(entry.getKey(), entry.getValue().stats());
+        return result;
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.metrics;
+
+import java.util.Map;
+
+public interface JmxMetricsMXBean {
+    Map<String, TimerStats> getParseTimes ();
+    Map<String, TimerStats> getCompileTimes ();
+    Map<String, TimerStats> getRenderTimes ();
+    Map<String, Long> getOutputBytes ();
+    Map<String, TimerStats> getFunctionTimes ();
+    Map<String, Double> getCacheHitRates ();
+
+    long getSlowRenderThreshold ();
+    void setSlowRenderThreshold (long millis);
+
+    void reset ();
+}
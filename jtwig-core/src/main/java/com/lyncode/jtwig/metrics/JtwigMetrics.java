@@ -0,0 +1,34 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.metrics;
+
+/**
+ * Receives measurements from the engine. Times are in nanoseconds.
+ */
+public interface JtwigMetrics {
+    /**
+     * Whether measurements should be taken at all, so a disabled
+     * implementation costs nothing.
+     */
+    boolean isEnabled ();
+
+    void parsed (String template, long time);
+    void compiled (String template, long time);
+    void rendered (String template, long time, long bytes);
+    void functionCalled (String function, long time);
+    void cacheAccessed (String cache, boolean hit);
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.metrics;
+
+/**
+ * The metrics in use by the engine, none by default.
+ */
+public class Metrics {
+    public static final JtwigMetrics NONE = new JtwigMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void parsed(String template, long time) {}
+
+        @Override
+        public void compiled(String template, long time) {}
+
+        @Override
+        public void rendered(String template, long time, long bytes) {}
+
+        @Override
+        public void functionCalled(String function, long time) {}
+
+        @Override
+        public void cacheAccessed(String cache, boolean hit) {}
+    };
+
+    private static volatile JtwigMetrics metrics = NONE;
+
+    public static JtwigMetrics metrics () {
+        return metrics;
+    }
+
+    public static void setMetrics (JtwigMetrics metrics) {
+        Metrics.metrics = metrics == null ? NONE : metrics;
+    }
+
+    /**
+     * The current time, if measuring.
+     */
+    public static long start () {
+        return metrics.isEnabled() ? System.nanoTime() : 0;
+    }
+}
@@ -50,7 +50,15 @@ public enum JtwigKeyword {
     FILTER("filter"),
 
     VERBATIM("verbatim"),
-    ENDVERBATIM("endverbatim");
+    ENDVERBATIM("endverbatim"),
+
+    AUTOESCAPE("autoescape"),
+    ENDAUTOESCAPE("endautoescape"),
+
+    FLUSH("flush"),
+
+    CACHE("cache"),
+    ENDCACHE("endcache");
 
     public static String[] keywords () {
         List<String> list = new ListBuilder<JtwigKeyword>().add(JtwigKeyword.values()).build(extractWord());
@@ -17,6 +17,7 @@
 package com.lyncode.jtwig.parser;
 
 import com.lyncode.jtwig.exception.*;
+import com.lyncode.jtwig.metrics.Metrics;
 import com.lyncode.jtwig.resource.JtwigResource;
 import com.lyncode.jtwig.tree.api.Argumentable;
 import com.lyncode.jtwig.tree.content.*;
@@ -50,9 +51,11 @@ import static org.parboiled.Parboiled.createParser;
 
 public class JtwigParser extends BaseParser<Object> {
     public static JtwigDocument parse (JtwigResource input) throws ParseException {
+        long start = Metrics.start();
         try {
             ReportingParseRunner<Object> runner = new ReportingParseRunner<Object>(createParser(JtwigParser.class).Start());
             ParsingResult<Object> result = runner.run(FileUtils.readAllText(input.retrieve(), Charset.defaultCharset()));
+            if (start != 0) Metrics.metrics().parsed(String.valueOf(input), System.nanoTime() - start);
             return (JtwigDocument) result.resultValue;
         } catch (ParserRuntimeException e) {
             if (e.getCause() instanceof ParseBypassException) {
@@ -109,6 +112,9 @@ public class JtwigParser extends BaseParser<Object> {
                                 AddToContent(IfExpression()),
                                 AddToContent(SetExpression()),
                                 AddToContent(Verbatim()),
+                                AddToContent(AutoescapeExpression()),
+                                AddToContent(FlushExpression()),
+                                AddToContent(CacheExpression()),
                                 Sequence(
                                         OpenCode(),
                                         TestNot(
@@ -121,7 +127,9 @@ public class JtwigParser extends BaseParser<Object> {
                                                         SpecificKeyword(FOR),
                                                         SpecificKeyword(SET),
                                                         SpecificKeyword(ELSE),
-                                                        SpecificKeyword(ELSEIF)
+                                                        SpecificKeyword(ELSEIF),
+                                                        SpecificKeyword(ENDAUTOESCAPE),
+                                                        SpecificKeyword(ENDCACHE)
                                                 )
                                         ),
                                         throwException(new UnknownExpressionException())
@@ -151,6 +159,81 @@ public class JtwigParser extends BaseParser<Object> {
         );
     }
 
+    protected Rule AutoescapeExpression() {
+        return Sequence(
+                OpenCode(),
+                SpecificKeyword(AUTOESCAPE),
+                Spacing(),
+                FirstOf(
+                        Sequence(
+                                StringLiteral(),
+                                Spacing()
+                        ),
+                        Sequence(
+                                Boolean(),
+                                Spacing()
+                        ),
+                        push("html")
+                ),
+                push(new AutoescapeExpression(pop())),
+                Ensure(
+                        new EndCodeMissingException(AUTOESCAPE),
+                        CloseCode()
+                ),
+                Content(),
+                ((AutoescapeExpression) peek(1)).setContent((Content) pop()),
+                Ensure(
+                        new EndClauseMissingException(AUTOESCAPE),
+                        OpenCode(),
+                        SpecificKeyword(ENDAUTOESCAPE),
+                        Spacing(),
+                        CloseCode()
+                )
+        );
+    }
+
+    protected Rule FlushExpression() {
+        return Sequence(
+                OpenCode(),
+                SpecificKeyword(FLUSH),
+                Spacing(),
+                push(new FlushExpression()),
+                Ensure(
+                        new EndCodeMissingException(FLUSH),
+                        CloseCode()
+                )
+        );
+    }
+
+    protected Rule CacheExpression() {
+        return Sequence(
+                OpenCode(),
+                SpecificKeyword(CACHE),
+                Spacing(),
+                Expression(),
+                Spacing(),
+                push(new CacheExpression(pop())),
+                Optional(
+                        Expression(),
+                        Spacing(),
+                        ((CacheExpression) peek(1)).setTtl(pop())
+                ),
+                Ensure(
+                        new EndCodeMissingException(CACHE),
+                        CloseCode()
+                ),
+                Content(),
+                ((CacheExpression) peek(1)).setContent((Content) pop()),
+                Ensure(
+                        new EndClauseMissingException(CACHE),
+                        OpenCode(),
+                        SpecificKeyword(ENDCACHE),
+                        Spacing(),
+                        CloseCode()
+                )
+        );
+    }
+
     protected Rule AddToContent(Rule innerRule) {
         return Sequence(
                 innerRule,
@@ -0,0 +1,81 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.profile;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Time spent in a node of the template, and in the nodes it rendered.
+ */
+public class ProfileNode {
+    private final String label;
+    private final Map<Object, ProfileNode> childrenByNode = new IdentityHashMap<Object, ProfileNode>();
+    private final List<ProfileNode> children = new ArrayList<ProfileNode>();
+    private long count;
+    private long totalTime;
+
+    public ProfileNode(String label) {
+        this.label = label;
+    }
+
+    ProfileNode child(Object node, String label) {
+        ProfileNode child = childrenByNode.get(node);
+        if (child == null) {
+            child = new ProfileNode(label);
+            childrenByNode.put(node, child);
+            children.add(child);
+        }
+        return child;
+    }
+
+    void record(long time) {
+        count++;
+        totalTime += time;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Nanoseconds spent in this node, including its children.
+     */
+    public long getTotalTime() {
+        return totalTime;
+    }
+
+    /**
+     * Nanoseconds spent in this node, excluding its children.
+     */
+    public long getSelfTime() {
+        long self = totalTime;
+        for (ProfileNode child : children)
+            self -= child.getTotalTime();
+        return Math.max(0, self);
+    }
+
+    public List<ProfileNode> getChildren() {
+        return children;
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.profile;
+
+import org.codehaus.jackson.map.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Formats of a profile.
+ */
+public class ProfileReport {
+    /**
+     * An indented tree with total and self milliseconds and invocation count
+     * of each node.
+     */
+    public static String text (ProfileNode root) {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("%10s %10s %8s%n", "total ms", "self ms", "count"));
+        text(root, 0, builder);
+        return builder.toString();
+    }
+
+    public static String json (ProfileNode root) throws IOException {
+        return new ObjectMapper().writeValueAsString(toMap(root));
+    }
+
+    /**
+     * One line per stack with its self time in microseconds, the input of
+     * flame graph tools.
+     */
+    public static String collapsed (ProfileNode root) {
+        StringBuilder builder = new StringBuilder();
+        collapsed(root, "", builder);
+        return builder.toString();
+    }
+
+    private static void text (ProfileNode node, int depth, StringBuilder builder) {
+        builder.append(String.format("%10.3f %10.3f %8d ", millis(node.getTotalTime()), millis(node.getSelfTime()), node.getCount()));
+        for (int i = 0; i < depth; i++)
+            builder.append("  ");
+        builder.append(node.getLabel()).append(String.format("%n"));
+        for (ProfileNode child : node.getChildren())
+            text(child, depth + 1, builder);
+    }
+
+    private static Map<String, Object> toMap (ProfileNode node) {
+        Map<String, Object> map = new LinkedHashMap<String, Object>();
+        map.put("label", node.getLabel());
+        map.put("count", node.getCount());
+        map.put("totalMillis", millis(node.getTotalTime()));
+        map.put("selfMillis", millis(node.getSelfTime()));
+        List<Map<String, Object>> children = new ArrayList<Map<String, Object>>();
+        for (ProfileNode child : node.getChildren())
+            children.add(toMap(child));
+        map.put("children", children);
+        return map;
+    }
+
+    private static void collapsed (ProfileNode node, String prefix, StringBuilder builder) {
+        String stack = prefix + node.getLabel().replace(';', ',').replace('\n', ' ');
+        long self = node.getSelfTime() / 1000;
+        if (self > 0)
+            builder.append(stack).append(' ').append(self).append('\n');
+        for (ProfileNode child : node.getChildren())
+            collapsed(child, stack + ";", builder);
+    }
+
+    private static double millis (long nanos) {
+        return nanos / 1000000.0;
+    }
+}
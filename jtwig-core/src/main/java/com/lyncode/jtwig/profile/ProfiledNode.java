@@ -0,0 +1,75 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.profile;
+
+import com.lyncode.jtwig.JtwigContext;
+import com.lyncode.jtwig.exception.CalculateException;
+import com.lyncode.jtwig.exception.RenderException;
+import com.lyncode.jtwig.tree.api.Calculable;
+import com.lyncode.jtwig.tree.api.Renderable;
+import com.lyncode.jtwig.util.RopeOperations;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Measures the node it decorates.
+ */
+class ProfiledNode implements Renderable, Calculable {
+    private final Profiler profiler;
+    private final Object node;
+    private final String label;
+
+    ProfiledNode(Profiler profiler, Object node, String label) {
+        this.profiler = profiler;
+        this.node = node;
+        this.label = label;
+    }
+
+    @Override
+    public boolean render(OutputStream outputStream, JtwigContext context) throws RenderException {
+        ProfileNode profileNode = profiler.enter(this, label);
+        long start = System.nanoTime();
+        try {
+            if (node instanceof Renderable)
+                return ((Renderable) node).render(outputStream, context);
+            RopeOperations.write(context.resolve(node), outputStream);
+            return true;
+        } catch (CalculateException e) {
+            throw new RenderException(e);
+        } catch (IOException e) {
+            throw new RenderException(e);
+        } finally {
+            profiler.exit(profileNode, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public Object calculate(JtwigContext context) throws CalculateException {
+        ProfileNode profileNode = profiler.enter(this, label);
+        long start = System.nanoTime();
+        try {
+            return context.resolve(node);
+        } finally {
+            profiler.exit(profileNode, System.nanoTime() - start);
+        }
+    }
+
+    public String toString() {
+        return String.valueOf(node);
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.profile;
+
+import com.lyncode.jtwig.JtwigContext;
+import com.lyncode.jtwig.exception.RenderException;
+import com.lyncode.jtwig.tree.api.Calculable;
+import com.lyncode.jtwig.tree.api.Renderable;
+import com.lyncode.jtwig.tree.content.*;
+import com.lyncode.jtwig.tree.structural.BlockExpression;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static com.lyncode.jtwig.tree.content.IfExpression.ElseIfExpression;
+
+/**
+ * Profiles renders of a compiled template. The template is decorated in
+ * place, each node wrapped in one measuring it, so a template should only
+ * be decorated when compiled for profiling; undecorated templates don't pay
+ * anything. Not thread safe, decorated templates render sequentially.
+ */
+public class Profiler {
+    private static final int MAX_LABEL_LENGTH = 80;
+
+    private final ProfileNode root;
+    private final List<ProfileNode> stack = new ArrayList<ProfileNode>();
+    private final Set<Content> decorated = Collections.newSetFromMap(new IdentityHashMap<Content, Boolean>());
+
+    public Profiler(String name) {
+        this.root = new ProfileNode(name);
+        this.stack.add(root);
+    }
+
+    public Content decorate(Content content) {
+        decorateContent(content);
+        return content;
+    }
+
+    public boolean render(Content content, OutputStream outputStream, JtwigContext context) throws RenderException {
+        long start = System.nanoTime();
+        try {
+            return content.render(outputStream, context);
+        } finally {
+            root.record(System.nanoTime() - start);
+        }
+    }
+
+    public ProfileNode getRoot() {
+        return root;
+    }
+
+    ProfileNode enter(Object node, String label) {
+        ProfileNode profileNode = stack.get(stack.size() - 1).child(node, label);
+        stack.add(profileNode);
+        return profileNode;
+    }
+
+    void exit(ProfileNode profileNode, long time) {
+        profileNode.record(time);
+        stack.remove(stack.size() - 1);
+    }
+
+    private void decorateContent(Content content) {
+        if (content == null || !decorated.add(content)) return;
+        List<Object> list = content.getList();
+        for (int i = 0; i < list.size(); i++) {
+            Object element = list.get(i);
+            decorateChildren(element);
+            if (element instanceof Renderable)
+                list.set(i, new ProfiledNode(this, element, label(element)));
+        }
+    }
+
+    private void decorateChildren(Object element) {
+        if (element instanceof Content)
+            decorateContent((Content) element);
+        else if (element instanceof BlockExpression)
+            decorateContent(((BlockExpression) element).getContent());
+        else if (element instanceof FastExpression) {
+            FastExpression fastExpression = (FastExpression) element;
+            fastExpression.setExpression(expression(fastExpression.getExpression()));
+        } else if (element instanceof SetExpression) {
+            SetExpression setExpression = (SetExpression) element;
+            setExpression.setAssignment(expression(setExpression.getAssignment()));
+        } else if (element instanceof ForExpression) {
+            ForExpression forExpression = (ForExpression) element;
+            forExpression.setList(expression(forExpression.getList()));
+            decorateContent(forExpression.getContent());
+        } else if (element instanceof ForPairExpression)
+            decorateContent(((ForPairExpression) element).getContent());
+        else if (element instanceof IfExpression) {
+            IfExpression ifExpression = (IfExpression) element;
+            ifExpression.setConditionalExpression(expression(ifExpression.getConditionalExpression()));
+            decorateContent(ifExpression.getContent());
+            for (ElseIfExpression elseIfExpression : ifExpression.getElseIfExpressions()) {
+                elseIfExpression.setCondition(expression(elseIfExpression.getCondition()));
+                decorateContent(elseIfExpression.getContent());
+            }
+            if (ifExpression.getElseExpression() != null)
+                decorateContent(ifExpression.getElseExpression().getContent());
+        } else if (element instanceof AutoescapeExpression)
+            decorateContent(((AutoescapeExpression) element).getContent());
+        else if (element instanceof CacheExpression)
+            decorateContent(((CacheExpression) element).getContent());
+    }
+
+    private Object expression(Object expression) {
+        if (expression instanceof Calculable)
+            return new ProfiledNode(this, expression, abbreviate("expression " + expression));
+        return expression;
+    }
+
+    private static String label(Object element) {
+        if (element instanceof Text)
+            return "text";
+        if (element instanceof FastExpression)
+            return abbreviate("{{ " + ((FastExpression) element).getExpression() + " }}");
+        if (element instanceof ForExpression)
+            return abbreviate("for " + ((ForExpression) element).getItem() + " in " + ((ForExpression) element).getList());
+        if (element instanceof ForPairExpression)
+            return abbreviate("for " + ((ForPairExpression) element).getKey() + " in " + ((ForPairExpression) element).getMap());
+        if (element instanceof IfExpression)
+            return abbreviate("if " + ((IfExpression) element).getConditionalExpression());
+        if (element instanceof SetExpression)
+            return "set " + ((SetExpression) element).getName();
+        if (element instanceof BlockExpression)
+            return "block " + ((BlockExpression) element).getName();
+        if (element instanceof CacheExpression)
+            return abbreviate("cache " + ((CacheExpression) element).getKey());
+        if (element instanceof AutoescapeExpression)
+            return "autoescape " + ((AutoescapeExpression) element).getStrategy();
+        if (element instanceof FlushExpression)
+            return "flush";
+        if (element instanceof Content)
+            return ((Content) element).getSource() == null ? "content" : "include " + ((Content) element).getSource();
+        return element.getClass().getSimpleName();
+    }
+
+    private static String abbreviate(String label) {
+        return label.length() <= MAX_LABEL_LENGTH ? label : label.substring(0, MAX_LABEL_LENGTH - 3) + "...";
+    }
+}
@@ -38,4 +38,22 @@ public class ClasspathJtwigResource implements JtwigResource {
         File relativeFile = new File(new File(resource).getParent(), relativePath);
         return new ClasspathJtwigResource(relativeFile.getPath());
     }
+
+    @Override
+    public String toString() {
+        return "classpath:" + resource;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ClasspathJtwigResource that = (ClasspathJtwigResource) o;
+        return resource.equals(that.resource);
+    }
+
+    @Override
+    public int hashCode() {
+        return resource.hashCode();
+    }
 }
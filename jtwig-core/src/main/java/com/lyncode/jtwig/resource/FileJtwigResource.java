@@ -43,4 +43,22 @@ public class FileJtwigResource implements JtwigResource {
     public JtwigResource resolve(String relativePath) {
         return new FileJtwigResource(new File(file.getParentFile(), relativePath));
     }
+
+    @Override
+    public String toString() {
+        return file.getPath();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FileJtwigResource that = (FileJtwigResource) o;
+        return file.equals(that.file);
+    }
+
+    @Override
+    public int hashCode() {
+        return file.hashCode();
+    }
 }
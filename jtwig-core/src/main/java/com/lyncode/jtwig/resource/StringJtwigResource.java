@@ -37,4 +37,22 @@ public class StringJtwigResource implements JtwigResource {
     public JtwigResource resolve(String relativePath) throws ResourceException {
         throw new ResourceException("Cannot resolve relative resources in a String resource");
     }
+
+    @Override
+    public String toString() {
+        return "string";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        StringJtwigResource that = (StringJtwigResource) o;
+        return content.equals(that.content);
+    }
+
+    @Override
+    public int hashCode() {
+        return content.hashCode();
+    }
 }
@@ -0,0 +1,102 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.tree.content;
+
+import com.lyncode.jtwig.exception.CompileException;
+import com.lyncode.jtwig.resource.JtwigResource;
+import com.lyncode.jtwig.tree.api.Compilable;
+import com.lyncode.jtwig.tree.structural.BlockExpression;
+
+import static com.lyncode.jtwig.functions.internal.string.Escape.EscapeStrategy;
+import static com.lyncode.jtwig.tree.content.IfExpression.ElseIfExpression;
+
+/**
+ * Escapes every output expression lexically enclosed by the tag. The
+ * decision is taken once at compile time, so rendering only pays for
+ * the expressions that may actually need escaping.
+ */
+public class AutoescapeExpression implements Compilable<Content> {
+    private Object strategy;
+    private Content content;
+
+    public AutoescapeExpression(Object strategy) {
+        this.strategy = strategy;
+    }
+
+    public Object getStrategy() {
+        return strategy;
+    }
+
+    public Content getContent() {
+        return content;
+    }
+
+    public boolean setContent(Content content) {
+        this.content = content;
+        return true;
+    }
+
+    @Override
+    public Content compile(JtwigResource resource) throws CompileException {
+        apply(content, strategy());
+        return content.compile(resource);
+    }
+
+    @Override
+    public boolean replace(BlockExpression expression) throws CompileException {
+        return content.replace(expression);
+    }
+
+    private EscapeStrategy strategy() throws CompileException {
+        if (strategy instanceof Boolean)
+            return ((Boolean) strategy) ? EscapeStrategy.HTML : null;
+        EscapeStrategy escapeStrategy = EscapeStrategy.strategyByName(String.valueOf(strategy));
+        if (escapeStrategy == null)
+            throw new CompileException("Unknown escaping strategy "+strategy);
+        return escapeStrategy;
+    }
+
+    private void apply(Content content, EscapeStrategy escapeStrategy) {
+        if (content == null) return;
+        for (Object element : content.getList()) {
+            if (element instanceof FastExpression)
+                ((FastExpression) element).setAutoescape(escapeStrategy);
+            else if (element instanceof Content)
+                apply((Content) element, escapeStrategy);
+            else if (element instanceof BlockExpression)
+                apply(((BlockExpression) element).getContent(), escapeStrategy);
+            else if (element instanceof ForExpression)
+                apply(((ForExpression) element).getContent(), escapeStrategy);
+            else if (element instanceof ForPairExpression)
+                apply(((ForPairExpression) element).getContent(), escapeStrategy);
+            else if (element instanceof CacheExpression)
+                apply(((CacheExpression) element).getContent(), escapeStrategy);
+            else if (element instanceof IfExpression) {
+                IfExpression ifExpression = (IfExpression) element;
+                apply(ifExpression.getContent(), escapeStrategy);
+                for (ElseIfExpression elseIfExpression : ifExpression.getElseIfExpressions())
+                    apply(elseIfExpression.getContent(), escapeStrategy);
+                if (ifExpression.getElseExpression() != null)
+                    apply(ifExpression.getElseExpression().getContent(), escapeStrategy);
+            }
+        }
+    }
+
+    public String toString() {
+        return "Autoescape " + strategy + " " + content;
+    }
+}
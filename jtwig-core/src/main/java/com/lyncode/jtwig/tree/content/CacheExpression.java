@@ -0,0 +1,115 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.tree.content;
+
+import com.lyncode.jtwig.JtwigContext;
+import com.lyncode.jtwig.cache.FragmentCache;
+import com.lyncode.jtwig.cache.FragmentKey;
+import com.lyncode.jtwig.exception.CalculateException;
+import com.lyncode.jtwig.exception.CompileException;
+import com.lyncode.jtwig.exception.RenderException;
+import com.lyncode.jtwig.functions.util.Rope;
+import com.lyncode.jtwig.metrics.Metrics;
+import com.lyncode.jtwig.resource.JtwigResource;
+import com.lyncode.jtwig.tree.api.Compilable;
+import com.lyncode.jtwig.tree.api.Renderable;
+import com.lyncode.jtwig.tree.structural.BlockExpression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static com.lyncode.jtwig.util.MathOperations.toInt;
+
+/**
+ * Renders its content once per key (and time to live, in seconds), later
+ * renders writing the stored bytes from the context fragment cache. Keys
+ * are scoped to the declaring template and the locale.
+ */
+public class CacheExpression implements Renderable, Compilable<CacheExpression> {
+    private Object key;
+    private Object ttl;
+    private Content content;
+    private JtwigResource resource;
+
+    public CacheExpression(Object key) {
+        this.key = key;
+    }
+
+    public Object getKey() {
+        return key;
+    }
+
+    public Object getTtl() {
+        return ttl;
+    }
+
+    public boolean setTtl(Object ttl) {
+        this.ttl = ttl;
+        return true;
+    }
+
+    public Content getContent() {
+        return content;
+    }
+
+    public boolean setContent(Content content) {
+        this.content = content;
+        return true;
+    }
+
+    @Override
+    public boolean render(OutputStream outputStream, final JtwigContext context) throws RenderException {
+        try {
+            FragmentKey resolvedKey = new FragmentKey(resource, context.getLocale(), Rope.flatten(context.resolve(key)));
+            long ttlMillis = ttl == null ? 0 : toInt(context.resolve(ttl)) * 1000L;
+            final boolean[] rendered = new boolean[1];
+            byte[] fragment = context.getFragmentCache().get(resolvedKey, ttlMillis, new FragmentCache.Renderer() {
+                @Override
+                public byte[] render() throws RenderException {
+                    rendered[0] = true;
+                    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                    content.render(buffer, context);
+                    return buffer.toByteArray();
+                }
+            });
+            Metrics.metrics().cacheAccessed("fragment", !rendered[0]);
+            outputStream.write(fragment);
+            return true;
+        } catch (CalculateException e) {
+            throw new RenderException(e);
+        } catch (IOException e) {
+            throw new RenderException(e);
+        }
+    }
+
+    @Override
+    public CacheExpression compile(JtwigResource resource) throws CompileException {
+        this.resource = resource;
+        content = content.compile(resource);
+        return this;
+    }
+
+    @Override
+    public boolean replace(BlockExpression expression) throws CompileException {
+        return content.replace(expression);
+    }
+
+    public String toString() {
+        return "Cache " + key + " render " + content;
+    }
+}
@@ -17,6 +17,7 @@
 package com.lyncode.jtwig.tree.content;
 
 import com.lyncode.jtwig.JtwigContext;
+import com.lyncode.jtwig.budget.RenderBudget;
 import com.lyncode.jtwig.exception.CompileException;
 import com.lyncode.jtwig.exception.RenderException;
 import com.lyncode.jtwig.resource.JtwigResource;
@@ -25,25 +26,80 @@ import com.lyncode.jtwig.tree.api.Renderable;
 import com.lyncode.jtwig.tree.helper.ElementList;
 import com.lyncode.jtwig.tree.structural.BlockExpression;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import static com.lyncode.jtwig.tree.content.IfExpression.ElseIfExpression;
 
 public class Content extends ElementList implements Renderable, Compilable<Content> {
+    private Boolean independent;
+    private String source;
+
     @Override
     public boolean render(OutputStream outputStream, JtwigContext context) throws RenderException {
+        RenderBudget budget = context.getBudget();
+        if (budget == null)
+            return renderContent(outputStream, context);
+        int depth = context.enter();
+        try {
+            if (depth == 1) {
+                budget.start();
+                outputStream = budget.limit(outputStream);
+            }
+            budget.enter(depth);
+            return renderContent(outputStream, context);
+        } catch (RenderException e) {
+            if (budget.getExceeded() != null)
+                throw budget.getExceeded();
+            throw e;
+        } finally {
+            context.exit();
+        }
+    }
+
+    private boolean renderContent(OutputStream outputStream, JtwigContext context) throws RenderException {
+        if (context.getExecutor() != null)
+            return renderConcurrently(outputStream, context);
         for (Object obj : getList()) {
-            if (!(obj instanceof Renderable)) throw new RenderException("Expecting only renderable objects. Object "+obj.getClass().getName()+" isn't");
-            Renderable renderable = (Renderable) obj;
-            renderable.render(outputStream, context);
+            renderable(obj).render(outputStream, context);
         }
         return true;
     }
 
+    /**
+     * The template this content was compiled from, if it's a whole template.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    /**
+     * Whether rendering this content never changes the context (no set
+     * expressions, nor anything unknown), so it can be rendered on its own.
+     */
+    public boolean isIndependent() {
+        if (independent == null)
+            independent = isIndependent(this);
+        return independent;
+    }
+
     @Override
     public Content compile(JtwigResource resource) throws CompileException {
         for (int i=0;i<getList().size();i++) {
             if (getList().get(i) instanceof Compilable)
                 getList().set(i, ((Compilable) getList().get(i)).compile(resource));
         }
+        independent = null;
         return this;
     }
 
@@ -61,6 +117,99 @@ public class Content extends ElementList implements Renderable, Compilable<Conte
             else if (getList().get(i) instanceof Compilable)
                 replaced = replaced || ((Compilable) getList().get(i)).replace(expression);
         }
+        independent = null;
         return replaced;
     }
+
+    /**
+     * Renders independent sub contents (included templates, blocks) in
+     * separate buffers on the context executor, everything else sequentially,
+     * writing all of it in document order.
+     */
+    private boolean renderConcurrently(OutputStream outputStream, JtwigContext context) throws RenderException {
+        // each part is either rendered on the executor or into a buffer
+        List<Future<byte[]>> futures = new ArrayList<Future<byte[]>>();
+        List<ByteArrayOutputStream> buffers = new ArrayList<ByteArrayOutputStream>();
+        OutputStream current = outputStream;
+        try {
+            for (Object obj : getList()) {
+                final Renderable renderable = renderable(obj);
+                Content content = obj instanceof BlockExpression ? ((BlockExpression) obj).getContent() : obj instanceof Content ? (Content) obj : null;
+                if (content != null && content.isIndependent()) {
+                    final JtwigContext fork = context.fork();
+                    futures.add(context.getExecutor().submit(new Callable<byte[]>() {
+                        @Override
+                        public byte[] call() throws RenderException {
+                            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                            renderable.render(buffer, fork);
+                            return buffer.toByteArray();
+                        }
+                    }));
+                    buffers.add(null);
+                    current = null;
+                } else {
+                    if (current == null) {
+                        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                        futures.add(null);
+                        buffers.add(buffer);
+                        current = buffer;
+                    }
+                    renderable.render(current, context);
+                }
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                if (futures.get(i) != null)
+                    outputStream.write(futures.get(i).get());
+                else
+                    buffers.get(i).writeTo(outputStream);
+            }
+            return true;
+        } catch (IOException e) {
+            throw new RenderException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RenderException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RenderException)
+                throw (RenderException) e.getCause();
+            throw new RenderException(e.getCause());
+        } finally {
+            for (Future<byte[]> future : futures) {
+                if (future != null)
+                    future.cancel(true);
+            }
+        }
+    }
+
+    private static Renderable renderable(Object obj) throws RenderException {
+        if (!(obj instanceof Renderable)) throw new RenderException("Expecting only renderable objects. Object "+obj.getClass().getName()+" isn't");
+        return (Renderable) obj;
+    }
+
+    private static boolean isIndependent(Object element) {
+        if (element == null) return true;
+        if (element instanceof Text || element instanceof FastExpression || element instanceof FlushExpression) return true;
+        if (element instanceof Content) {
+            for (Object child : ((Content) element).getList())
+                if (!isIndependent(child)) return false;
+            return true;
+        }
+        if (element instanceof BlockExpression)
+            return isIndependent(((BlockExpression) element).getContent());
+        if (element instanceof ForExpression)
+            return isIndependent(((ForExpression) element).getContent());
+        if (element instanceof ForPairExpression)
+            return isIndependent(((ForPairExpression) element).getContent());
+        if (element instanceof CacheExpression)
+            return isIndependent(((CacheExpression) element).getContent());
+        if (element instanceof IfExpression) {
+            IfExpression ifExpression = (IfExpression) element;
+            if (!isIndependent(ifExpression.getContent())) return false;
+            for (ElseIfExpression elseIfExpression : ifExpression.getElseIfExpressions())
+                if (!isIndependent(elseIfExpression.getContent())) return false;
+            return ifExpression.getElseExpression() == null
+                    || isIndependent(ifExpression.getElseExpression().getContent());
+        }
+        return false;
+    }
 }
@@ -19,13 +19,23 @@ package com.lyncode.jtwig.tree.content;
 import com.lyncode.jtwig.JtwigContext;
 import com.lyncode.jtwig.exception.CalculateException;
 import com.lyncode.jtwig.exception.RenderException;
+import com.lyncode.jtwig.functions.util.Escaper;
+import com.lyncode.jtwig.functions.util.SafeString;
 import com.lyncode.jtwig.tree.api.Renderable;
+import com.lyncode.jtwig.tree.value.Composition;
+import com.lyncode.jtwig.tree.value.FunctionElement;
+import com.lyncode.jtwig.tree.value.OperationBinary;
+import com.lyncode.jtwig.tree.value.OperationUnary;
+import com.lyncode.jtwig.util.RopeOperations;
 
 import java.io.IOException;
 import java.io.OutputStream;
 
+import static com.lyncode.jtwig.functions.internal.string.Escape.EscapeStrategy;
+
 public class FastExpression implements Renderable {
     private Object expression;
+    private Escaper escaper = null;
 
     public FastExpression (Object expression) {
         this.expression = expression;
@@ -35,11 +45,38 @@ public class FastExpression implements Renderable {
         return expression;
     }
 
+    public boolean setExpression(Object expression) {
+        this.expression = expression;
+        return true;
+    }
+
+    /**
+     * Enables (or disables, if null) escaping of the rendered value. Expressions
+     * known to never need escaping (literals, numeric and boolean operations,
+     * already escaped compositions) are left untouched.
+     */
+    public boolean setAutoescape(EscapeStrategy strategy) {
+        if (strategy == null || isSafe(expression))
+            this.escaper = null;
+        else
+            this.escaper = strategy.getEscaper();
+        return true;
+    }
+
+    public boolean isAutoescaped() {
+        return escaper != null;
+    }
+
     @Override
     public boolean render(OutputStream outputStream, JtwigContext context) throws RenderException {
+        if (escaper == null && expression instanceof Renderable)
+            return ((Renderable) expression).render(outputStream, context);
         try {
             Object resolved = context.resolve(expression);
-            outputStream.write(String.valueOf(resolved).getBytes());
+            if (escaper == null || isSafeValue(resolved))
+                RopeOperations.write(resolved, outputStream);
+            else
+                escaper.write(String.valueOf(resolved), outputStream);
             return true;
         } catch (IOException e) {
             throw new RenderException(e);
@@ -48,6 +85,24 @@ public class FastExpression implements Renderable {
         }
     }
 
+    private static boolean isSafe(Object expression) {
+        if (expression == null) return true;
+        if (expression instanceof String) return true;
+        if (expression instanceof Number) return true;
+        if (expression instanceof Boolean) return true;
+        if (expression instanceof OperationBinary) return true;
+        if (expression instanceof OperationUnary) return true;
+        if (expression instanceof Composition) return ((Composition) expression).isEscaped();
+        if (expression instanceof FunctionElement) return ((FunctionElement) expression).isEscaping();
+        return false;
+    }
+
+    private static boolean isSafeValue(Object value) {
+        return value instanceof SafeString
+                || value instanceof Number
+                || value instanceof Boolean;
+    }
+
     public String toString () {
         return "Render the result of "+expression;
     }
@@ -17,6 +17,7 @@
 package com.lyncode.jtwig.tree.content;
 
 import com.lyncode.jtwig.JtwigContext;
+import com.lyncode.jtwig.budget.RenderBudget;
 import com.lyncode.jtwig.exception.CalculateException;
 import com.lyncode.jtwig.exception.CompileException;
 import com.lyncode.jtwig.exception.RenderException;
@@ -56,6 +57,11 @@ public class ForExpression implements Renderable, Compilable<ForExpression> {
         return list;
     }
 
+    public boolean setList(Object list) {
+        this.list = list;
+        return true;
+    }
+
     public List<FunctionElement> getFilters() {
         return filters;
     }
@@ -75,8 +81,10 @@ public class ForExpression implements Renderable, Compilable<ForExpression> {
             ObjectIterator iterator = new ObjectIterator(context.resolve(list));
             Loop loop = new Loop(iterator.size());
             context.set("loop", loop);
+            RenderBudget budget = context.getBudget();
             int index = 0;
             while (iterator.hasNext()) {
+                if (budget != null) budget.iterate();
                 loop.update(index++);
                 Object object = iterator.next();
                 context.set(item.getIdentifier(), object);
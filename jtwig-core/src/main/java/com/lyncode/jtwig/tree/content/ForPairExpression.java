@@ -17,6 +17,7 @@
 package com.lyncode.jtwig.tree.content;
 
 import com.lyncode.jtwig.JtwigContext;
+import com.lyncode.jtwig.budget.RenderBudget;
 import com.lyncode.jtwig.exception.CalculateException;
 import com.lyncode.jtwig.exception.CompileException;
 import com.lyncode.jtwig.exception.RenderException;
@@ -69,8 +70,10 @@ public class ForPairExpression implements Renderable, Compilable<ForPairExpressi
             Map map = (Map) resolved;
             Loop loop = new Loop(map.size());
             context.set("loop", loop);
+            RenderBudget budget = context.getBudget();
             int index = 0;
             for (Object key : map.keySet()) {
+                if (budget != null) budget.iterate();
                 loop.update(index++);
                 context.set(this.key.getIdentifier(), key);
                 context.set(this.value.getIdentifier(), map.get(key));
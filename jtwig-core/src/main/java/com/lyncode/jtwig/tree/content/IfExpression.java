@@ -55,6 +55,11 @@ public class IfExpression implements Renderable, Compilable<IfExpression> {
         return conditionalExpression;
     }
 
+    public boolean setConditionalExpression(Object conditionalExpression) {
+        this.conditionalExpression = conditionalExpression;
+        return true;
+    }
+
     public ElseExpression getElseExpression() {
         return elseExpression;
     }
@@ -125,6 +130,15 @@ public class IfExpression implements Renderable, Compilable<IfExpression> {
             this.condition = condition;
         }
 
+        public Object getCondition() {
+            return condition;
+        }
+
+        public boolean setCondition(Object condition) {
+            this.condition = condition;
+            return true;
+        }
+
         public boolean setContent(Content content) {
             this.content = content;
             return true;
@@ -165,6 +179,10 @@ public class IfExpression implements Renderable, Compilable<IfExpression> {
             this.content = content;
         }
 
+        public Content getContent() {
+            return content;
+        }
+
         @Override
         public boolean render(OutputStream outputStream, JtwigContext context) throws RenderException {
             content.render(outputStream, context);
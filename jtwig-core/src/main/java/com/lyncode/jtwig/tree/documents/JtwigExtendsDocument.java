@@ -19,6 +19,7 @@ package com.lyncode.jtwig.tree.documents;
 import com.lyncode.jtwig.exception.CompileException;
 import com.lyncode.jtwig.exception.ParseException;
 import com.lyncode.jtwig.exception.ResourceException;
+import com.lyncode.jtwig.metrics.Metrics;
 import com.lyncode.jtwig.parser.JtwigParser;
 import com.lyncode.jtwig.resource.JtwigResource;
 import com.lyncode.jtwig.tree.content.Content;
@@ -43,6 +44,7 @@ public class JtwigExtendsDocument implements JtwigDocument {
 
     @Override
     public Content compile(JtwigResource resource) throws CompileException {
+        long start = Metrics.start();
         try {
             for (int i = 0; i < blocks.size(); i++)
                 blocks.set(i, blocks.get(i).compile(resource));
@@ -54,6 +56,7 @@ public class JtwigExtendsDocument implements JtwigDocument {
                 content.replace(expression);
             }
 
+            if (start != 0) Metrics.metrics().compiled(String.valueOf(resource), System.nanoTime() - start);
             return content;
         } catch (ResourceException e) {
             throw new CompileException(e);
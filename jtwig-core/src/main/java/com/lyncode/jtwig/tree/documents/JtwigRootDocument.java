@@ -17,6 +17,7 @@
 package com.lyncode.jtwig.tree.documents;
 
 import com.lyncode.jtwig.exception.CompileException;
+import com.lyncode.jtwig.metrics.Metrics;
 import com.lyncode.jtwig.resource.JtwigResource;
 import com.lyncode.jtwig.tree.content.Content;
 import com.lyncode.jtwig.tree.structural.BlockExpression;
@@ -34,7 +35,11 @@ public class JtwigRootDocument implements JtwigDocument {
 
     @Override
     public Content compile(JtwigResource resource) throws CompileException {
-        return content.compile(resource);
+        long start = Metrics.start();
+        Content compiled = content.compile(resource);
+        compiled.setSource(String.valueOf(resource));
+        if (start != 0) Metrics.metrics().compiled(String.valueOf(resource), System.nanoTime() - start);
+        return compiled;
     }
 
     @Override
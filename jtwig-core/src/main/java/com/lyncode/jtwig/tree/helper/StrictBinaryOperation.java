@@ -19,6 +19,8 @@ package com.lyncode.jtwig.tree.helper;
 import com.lyncode.jtwig.JtwigContext;
 import com.lyncode.jtwig.exception.CalculateException;
 import com.lyncode.jtwig.functions.util.ObjectIterator;
+import com.lyncode.jtwig.functions.util.Rope;
+import com.lyncode.jtwig.functions.util.SafeString;
 import com.lyncode.jtwig.tree.api.Calculable;
 import com.lyncode.jtwig.tree.value.OperationBinary;
 import com.lyncode.jtwig.tree.value.Operator;
@@ -66,8 +68,8 @@ public class StrictBinaryOperation implements Calculable {
     }
 
     private Object relationalExecute(JtwigContext resolver) throws CalculateException {
-        Object leftResolved = resolver.resolve(left);
-        Object rightResolved = resolver.resolve(right);
+        Object leftResolved = SafeString.flatten(Rope.flatten(resolver.resolve(left)));
+        Object rightResolved = SafeString.flatten(Rope.flatten(resolver.resolve(right)));
         switch (operator) {
             case GT:
                 return RelationalOperations.gt(leftResolved, rightResolved);
@@ -18,6 +18,7 @@ package com.lyncode.jtwig.tree.structural;
 
 import com.lyncode.jtwig.exception.CompileException;
 import com.lyncode.jtwig.exception.ParseException;
+import com.lyncode.jtwig.exception.RenderLimitExceededException;
 import com.lyncode.jtwig.exception.ResourceException;
 import com.lyncode.jtwig.parser.JtwigParser;
 import com.lyncode.jtwig.resource.JtwigResource;
@@ -25,7 +26,34 @@ import com.lyncode.jtwig.tree.api.Compilable;
 import com.lyncode.jtwig.tree.content.Content;
 import com.lyncode.jtwig.tree.documents.JtwigDocument;
 
+import static com.lyncode.jtwig.exception.RenderLimitExceededException.Limit.INCLUDE_DEPTH;
+
 public class IncludeExpression implements Compilable<Content> {
+    public static final int DEFAULT_MAX_DEPTH = 32;
+
+    private static volatile int maxDepth = Integer.getInteger("jtwig.include.maxDepth", DEFAULT_MAX_DEPTH);
+
+    private static final ThreadLocal<int[]> depth = new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[1];
+        }
+    };
+
+    public static int getMaxDepth () {
+        return maxDepth;
+    }
+
+    /**
+     * Includes are compiled into the including template, so recursive ones
+     * are stopped at compile time, once nested this deep. Defaults to the
+     * jtwig.include.maxDepth system property, or {@link #DEFAULT_MAX_DEPTH}.
+     */
+    public static void setMaxDepth (int maxDepth) {
+        if (maxDepth <= 0) throw new IllegalArgumentException("Include depth must be positive, got " + maxDepth);
+        IncludeExpression.maxDepth = maxDepth;
+    }
+
     private String path;
 
     public IncludeExpression(String path) {
@@ -38,6 +66,11 @@ public class IncludeExpression implements Compilable<Content> {
 
     @Override
     public Content compile(JtwigResource resource) throws CompileException {
+        int[] current = depth.get();
+        int max = maxDepth;
+        if (current[0] >= max)
+            throw new CompileException("Unable to include "+path, new RenderLimitExceededException(INCLUDE_DEPTH, max));
+        current[0]++;
         try {
             JtwigResource jtwigResource = resource.resolve(path);
             JtwigDocument jtwigDocument = JtwigParser.parse(jtwigResource);
@@ -46,6 +79,8 @@ public class IncludeExpression implements Compilable<Content> {
             throw new CompileException(e);
         } catch (ResourceException e) {
             throw new CompileException(e);
+        } finally {
+            current[0]--;
         }
     }
 
@@ -16,17 +16,28 @@
 
 package com.lyncode.jtwig.tree.value;
 
-import com.lyncode.builder.ListBuilder;
 import com.lyncode.jtwig.JtwigContext;
 import com.lyncode.jtwig.exception.CalculateException;
+import com.lyncode.jtwig.exception.RenderException;
+import com.lyncode.jtwig.functions.CharSink;
+import com.lyncode.jtwig.functions.Function;
+import com.lyncode.jtwig.functions.FusibleFunction;
+import com.lyncode.jtwig.functions.StreamingFunction;
 import com.lyncode.jtwig.functions.exceptions.FunctionException;
 import com.lyncode.jtwig.functions.exceptions.FunctionNotFoundException;
+import com.lyncode.jtwig.functions.util.CharSinks;
+import com.lyncode.jtwig.functions.util.Rope;
+import com.lyncode.jtwig.functions.util.SafeString;
 import com.lyncode.jtwig.tree.api.Calculable;
+import com.lyncode.jtwig.tree.api.Renderable;
+import com.lyncode.jtwig.util.RopeOperations;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
-public class Composition implements Calculable {
+public class Composition implements Calculable, Renderable {
     private Object context;
     private List<FunctionElement> filters = new ArrayList<FunctionElement>();
 
@@ -44,23 +55,138 @@ public class Composition implements Calculable {
         return true;
     }
 
+    /**
+     * Whether the last filter applied already escapes (or explicitly trusts)
+     * the value.
+     */
+    public boolean isEscaped() {
+        if (filters.isEmpty()) return false;
+        return filters.get(filters.size() - 1).isEscaping();
+    }
+
     @Override
     public Object calculate(JtwigContext context) throws CalculateException {
         try {
             Object resolved = context.resolve(this.context);
-            for (FunctionElement functionElement : filters) {
-                List<Object> arguments = new ListBuilder<Object>()
-                        .add(resolved)
-                        .add(((List) context.resolve(functionElement.getArguments())).toArray())
-                        .build();
-                resolved = context.function(functionElement.getName()).execute(arguments.toArray());
+            Function[] functions = functions(context);
+            int i = 0;
+            while (i < functions.length) {
+                int end = fusibleRun(functions, i);
+                if (end - i > 1) {
+                    StringBuilder builder = new StringBuilder();
+                    if (fuse(resolved, functions, i, end, CharSinks.to(builder), context)) {
+                        resolved = fused(builder, end);
+                        i = end;
+                        continue;
+                    }
+                }
+                resolved = RopeOperations.execute(filters.get(i).getName(), functions[i], arguments(resolved, filters.get(i), context));
+                i++;
             }
             return resolved;
         } catch (FunctionException e) {
             throw new CalculateException(e);
         } catch (FunctionNotFoundException e) {
             throw new CalculateException(e);
+        } catch (IOException e) {
+            throw new CalculateException(e);
+        }
+    }
+
+    @Override
+    public boolean render(OutputStream outputStream, JtwigContext context) throws RenderException {
+        try {
+            Object resolved = context.resolve(this.context);
+            Function[] functions = functions(context);
+            int last = functions.length - 1;
+            int i = 0;
+            while (i < functions.length) {
+                int end = fusibleRun(functions, i);
+                if (end - i > 1) {
+                    if (end == functions.length) {
+                        // the chain ends with the fused filters, straight into the output
+                        if (fuse(resolved, functions, i, end, CharSinks.to(outputStream), context))
+                            return true;
+                    } else {
+                        StringBuilder builder = new StringBuilder();
+                        if (fuse(resolved, functions, i, end, CharSinks.to(builder), context)) {
+                            resolved = fused(builder, end);
+                            i = end;
+                            continue;
+                        }
+                    }
+                }
+                if (i == last) break;
+                resolved = RopeOperations.execute(filters.get(i).getName(), functions[i], arguments(resolved, filters.get(i), context));
+                i++;
+            }
+
+            if (last < 0) {
+                RopeOperations.write(resolved, outputStream);
+                return true;
+            }
+
+            Function function = functions[last];
+            Object[] arguments = arguments(resolved, filters.get(last), context);
+            if (function instanceof StreamingFunction)
+                RopeOperations.stream(filters.get(last).getName(), (StreamingFunction) function, outputStream, arguments);
+            else
+                RopeOperations.write(RopeOperations.execute(filters.get(last).getName(), function, arguments), outputStream);
+            return true;
+        } catch (FunctionException e) {
+            throw new RenderException(e);
+        } catch (FunctionNotFoundException e) {
+            throw new RenderException(e);
+        } catch (CalculateException e) {
+            throw new RenderException(e);
+        } catch (IOException e) {
+            throw new RenderException(e);
+        }
+    }
+
+    private Function[] functions(JtwigContext context) throws FunctionNotFoundException {
+        Function[] functions = new Function[filters.size()];
+        for (int i = 0; i < functions.length; i++)
+            functions[i] = context.function(filters.get(i).getName());
+        return functions;
+    }
+
+    private int fusibleRun(Function[] functions, int start) {
+        int end = start;
+        while (end < functions.length && functions[end] instanceof FusibleFunction)
+            end++;
+        return end;
+    }
+
+    /**
+     * Applies the fusible filters [start, end) in a single pass over the
+     * input, returns false (having written nothing) when they can't be fused.
+     */
+    private boolean fuse(Object input, Function[] functions, int start, int end, CharSink output, JtwigContext context) throws FunctionException, CalculateException, IOException {
+        if (!(input instanceof String) && !(input instanceof Rope)) return false;
+        String value = input.toString();
+
+        boolean asciiOnly = false;
+        for (int i = start; i < end; i++)
+            asciiOnly |= ((FusibleFunction) functions[i]).isAsciiOnly();
+        if (asciiOnly && !CharSinks.isAscii(value)) return false;
+
+        CharSink sink = output;
+        for (int i = end - 1; i >= start; i--) {
+            sink = ((FusibleFunction) functions[i]).fuse(sink, RopeOperations.flatten(arguments(null, filters.get(i), context)));
+            if (sink == null) return false;
         }
+        CharSinks.write(value, sink);
+        return true;
+    }
+
+    // escaped by the last fused filter
+    private Object fused(StringBuilder builder, int end) {
+        if (filters.get(end - 1).isEscaping()) return new SafeString(builder.toString());
+        return builder.toString();
+    }
 
+    private Object[] arguments(Object input, FunctionElement functionElement, JtwigContext context) throws CalculateException {
+        return functionElement.getArguments().arguments(input, context);
     }
 }
@@ -18,6 +18,8 @@ package com.lyncode.jtwig.tree.value;
 
 import com.lyncode.jtwig.JtwigContext;
 import com.lyncode.jtwig.exception.CalculateException;
+import com.lyncode.jtwig.functions.util.LiteralMap;
+import com.lyncode.jtwig.functions.util.Rope;
 import com.lyncode.jtwig.tree.api.Calculable;
 import com.lyncode.jtwig.tree.api.Element;
 
@@ -30,11 +32,13 @@ import static org.apache.commons.lang3.StringUtils.join;
 
 public class ElementMap implements Element, Calculable {
     private Map<String, Object> map = new HashMap<String, Object>();
+    private LiteralMap literal = null;
 
     public ElementMap () {}
 
     public boolean add (String key, Object element) {
         map.put(key, element);
+        literal = null;
         return true;
     }
 
@@ -52,13 +56,25 @@ public class ElementMap implements Element, Calculable {
 
     @Override
     public Object calculate(JtwigContext context) throws CalculateException {
+        if (literal != null) return literal;
+        if (isLiteral()) {
+            literal = new LiteralMap(map);
+            return literal;
+        }
         Map<String, Object> result = new HashMap<String, Object>();
         for (String key : map.keySet()) {
             if (map.get(key) instanceof Calculable)
-                result.put(key, ((Calculable) map.get(key)).calculate(context));
+                result.put(key, Rope.flatten(((Calculable) map.get(key)).calculate(context)));
             else
                 result.put(key, map.get(key));
         }
         return result;
     }
+
+    private boolean isLiteral () {
+        for (Object value : map.values())
+            if (value instanceof Calculable)
+                return false;
+        return true;
+    }
 }
@@ -18,17 +18,24 @@ package com.lyncode.jtwig.tree.value;
 
 import com.lyncode.jtwig.JtwigContext;
 import com.lyncode.jtwig.exception.CalculateException;
+import com.lyncode.jtwig.exception.RenderException;
+import com.lyncode.jtwig.functions.Function;
+import com.lyncode.jtwig.functions.StreamingFunction;
 import com.lyncode.jtwig.functions.exceptions.FunctionException;
 import com.lyncode.jtwig.functions.exceptions.FunctionNotFoundException;
 import com.lyncode.jtwig.tree.api.Argumentable;
 import com.lyncode.jtwig.tree.api.Calculable;
 import com.lyncode.jtwig.tree.api.Element;
+import com.lyncode.jtwig.tree.api.Renderable;
+import com.lyncode.jtwig.util.RopeOperations;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
 
-public class FunctionElement implements Element, Argumentable, Calculable {
+public class FunctionElement implements Element, Argumentable, Calculable, Renderable {
     private String name;
     private ValueList arguments;
+    private Boolean constant;
 
     public FunctionElement(String name) {
         this.name = name;
@@ -40,6 +47,13 @@ public class FunctionElement implements Element, Argumentable, Calculable {
         return arguments.add(argument);
     }
 
+    /**
+     * Whether the function output is already escaped (or explicitly trusted).
+     */
+    public boolean isEscaping() {
+        return "escape".equals(name) || "e".equals(name) || "raw".equals(name);
+    }
+
     public String getName() {
         return name;
     }
@@ -55,7 +69,7 @@ public class FunctionElement implements Element, Argumentable, Calculable {
     @Override
     public Object calculate(JtwigContext context) throws CalculateException {
         try {
-            return context.function(getName()).execute(arguments(context));
+            return execute(context.function(getName()), context);
         } catch (FunctionException e) {
             throw new CalculateException(e);
         } catch (FunctionNotFoundException e) {
@@ -63,7 +77,43 @@ public class FunctionElement implements Element, Argumentable, Calculable {
         }
     }
 
-    private Object[] arguments(JtwigContext context) throws CalculateException {
-        return ((List<?>) arguments.calculate(context)).toArray();
+    @Override
+    public boolean render(OutputStream outputStream, JtwigContext context) throws RenderException {
+        try {
+            Function function = context.function(getName());
+            if (function instanceof StreamingFunction)
+                RopeOperations.stream(getName(), (StreamingFunction) function, outputStream, arguments.arguments(context));
+            else
+                RopeOperations.write(execute(function, context), outputStream);
+            return true;
+        } catch (FunctionException e) {
+            throw new RenderException(e);
+        } catch (FunctionNotFoundException e) {
+            throw new RenderException(e);
+        } catch (CalculateException e) {
+            throw new RenderException(e);
+        } catch (IOException e) {
+            throw new RenderException(e);
+        }
+    }
+
+    private Object execute(Function function, JtwigContext context) throws FunctionException, FunctionNotFoundException, CalculateException {
+        if (isConstant())
+            return context.execute(getName(), arguments.getList().toArray());
+        return RopeOperations.execute(getName(), function, arguments.arguments(context));
+    }
+
+    /**
+     * Whether all arguments are literals, making the call a candidate for
+     * memoization.
+     */
+    private boolean isConstant() {
+        if (constant == null) {
+            boolean result = true;
+            for (Object argument : arguments.getList())
+                result &= !(argument instanceof Calculable);
+            constant = result;
+        }
+        return constant;
     }
 }
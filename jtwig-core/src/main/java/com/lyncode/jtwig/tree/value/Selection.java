@@ -18,6 +18,7 @@ package com.lyncode.jtwig.tree.value;
 
 import com.lyncode.jtwig.JtwigContext;
 import com.lyncode.jtwig.exception.CalculateException;
+import com.lyncode.jtwig.functions.util.Rope;
 import com.lyncode.jtwig.tree.api.Calculable;
 import com.lyncode.jtwig.tree.helper.ElementList;
 import com.lyncode.jtwig.util.ObjectExtractor;
@@ -33,7 +34,7 @@ public class Selection extends ElementList implements Calculable {
     public Object calculate(JtwigContext context) throws CalculateException {
         Object contextObject = null;
         for (Object obj : getList()) {
-            if (contextObject == null) contextObject = resolve(obj, context);
+            if (contextObject == null) contextObject = Rope.flatten(resolve(obj, context));
             else {
                 ObjectExtractor objectExtractor = new ObjectExtractor(contextObject);
                 if (obj instanceof Variable) {
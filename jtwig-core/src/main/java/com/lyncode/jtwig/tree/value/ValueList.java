@@ -18,6 +18,7 @@ package com.lyncode.jtwig.tree.value;
 
 import com.lyncode.jtwig.JtwigContext;
 import com.lyncode.jtwig.exception.CalculateException;
+import com.lyncode.jtwig.functions.util.Rope;
 import com.lyncode.jtwig.tree.api.Calculable;
 import com.lyncode.jtwig.tree.helper.ElementList;
 
@@ -30,10 +31,34 @@ public class ValueList extends ElementList implements Calculable {
         List<Object> result = new ArrayList<Object>();
         for (Object obj : getList()) {
             if (obj instanceof Calculable)
-                result.add(((Calculable) obj).calculate(context));
+                result.add(Rope.flatten(((Calculable) obj).calculate(context)));
             else
                 result.add(obj);
         }
         return result;
     }
+
+    /**
+     * Calculates the values as function arguments, leaving ropes unflattened.
+     */
+    public Object[] arguments(JtwigContext context) throws CalculateException {
+        return arguments(context, 0);
+    }
+
+    /**
+     * Same as {@link #arguments(JtwigContext)}, with the given input as first argument.
+     */
+    public Object[] arguments(Object input, JtwigContext context) throws CalculateException {
+        Object[] result = arguments(context, 1);
+        result[0] = input;
+        return result;
+    }
+
+    private Object[] arguments(JtwigContext context, int offset) throws CalculateException {
+        List<Object> list = getList();
+        Object[] result = new Object[list.size() + offset];
+        for (int i = 0; i < list.size(); i++)
+            result[i + offset] = context.resolve(list.get(i));
+        return result;
+    }
 }
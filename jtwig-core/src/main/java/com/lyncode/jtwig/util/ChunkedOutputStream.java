@@ -0,0 +1,70 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.util;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Buffers output in a fixed size chunk, writing and flushing it to the
+ * underlying stream whenever it fills up or is explicitly flushed, so the
+ * client starts receiving the page before it's completely rendered.
+ */
+public class ChunkedOutputStream extends FilterOutputStream {
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    private final byte[] chunk;
+    private int count = 0;
+
+    public ChunkedOutputStream(OutputStream out) {
+        this(out, DEFAULT_CHUNK_SIZE);
+    }
+
+    public ChunkedOutputStream(OutputStream out, int chunkSize) {
+        super(out);
+        if (chunkSize <= 0) throw new IllegalArgumentException("Chunk size must be positive, got " + chunkSize);
+        this.chunk = new byte[chunkSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (count == chunk.length) flush();
+        chunk[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (count == chunk.length) flush();
+            int length = Math.min(len, chunk.length - count);
+            System.arraycopy(b, off, chunk, count, length);
+            count += length;
+            off += length;
+            len -= length;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (count > 0) {
+            out.write(chunk, 0, count);
+            count = 0;
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.util;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.ref.SoftReference;
+
+/**
+ * Per thread reusable output buffers for rendering into a String or a byte
+ * array, so that rendering only allocates the final result.
+ * <p>
+ * A pooled thread keeps its buffer for as long as it lives, so buffers which
+ * grew past {@link #MAX_RETAINED_SIZE} are dropped, larger renders paying
+ * for a fresh allocation instead. The kept buffer is softly referenced, so
+ * it is reclaimed under memory pressure, along with the class loader it
+ * would otherwise pin once the application is undeployed.
+ */
+public class RenderBuffers {
+    public static final int MAX_RETAINED_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<SoftReference<Buffer>> BUFFERS = new ThreadLocal<SoftReference<Buffer>>();
+
+    /**
+     * A buffer with room for at least the expected size, to give back with
+     * {@link #release(Buffer)} once done.
+     */
+    public static Buffer acquire (int expectedSize) {
+        Buffer retained = retained();
+        Buffer buffer = retained;
+        if (buffer == null || buffer.inUse) {
+            // nested rendering (or first use in this thread)
+            buffer = new Buffer(Math.max(expectedSize, 256));
+            if (retained == null) BUFFERS.set(new SoftReference<Buffer>(buffer));
+        } else {
+            buffer.ensureCapacity(expectedSize);
+        }
+        buffer.inUse = true;
+        return buffer;
+    }
+
+    public static void release (Buffer buffer) {
+        buffer.reset();
+        buffer.inUse = false;
+        if (buffer.capacity() > MAX_RETAINED_SIZE && retained() == buffer)
+            BUFFERS.remove();
+    }
+
+    private static Buffer retained () {
+        SoftReference<Buffer> reference = BUFFERS.get();
+        return reference == null ? null : reference.get();
+    }
+
+    public static class Buffer extends ByteArrayOutputStream {
+        private boolean inUse = false;
+
+        private Buffer(int size) {
+            super(size);
+        }
+
+        public int capacity() {
+            return buf.length;
+        }
+
+        private void ensureCapacity(int size) {
+            if (size > buf.length) {
+                byte[] bigger = new byte[size];
+                System.arraycopy(buf, 0, bigger, 0, count);
+                buf = bigger;
+            }
+        }
+    }
+}
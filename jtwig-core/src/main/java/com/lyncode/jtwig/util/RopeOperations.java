@@ -0,0 +1,98 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.util;
+
+import com.lyncode.jtwig.functions.Function;
+import com.lyncode.jtwig.functions.RopeFunction;
+import com.lyncode.jtwig.functions.SafeStringFunction;
+import com.lyncode.jtwig.functions.StreamingFunction;
+import com.lyncode.jtwig.functions.exceptions.FunctionException;
+import com.lyncode.jtwig.functions.util.LiteralMap;
+import com.lyncode.jtwig.functions.util.Rope;
+import com.lyncode.jtwig.functions.util.SafeString;
+import com.lyncode.jtwig.metrics.Metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+
+import static com.lyncode.jtwig.functions.repository.AbstractFunctionRepository.isBuiltIn;
+
+public class RopeOperations {
+    /**
+     * Executes the function, keeping its result lazy when it knows how to.
+     * Ropes and safe strings are only handed over as they are to functions
+     * asking for them, and constant map literals, shared across renders, only
+     * to built-in functions, others getting a copy they may modify.
+     */
+    public static Object execute (Function function, Object... arguments) throws FunctionException {
+        copyLiterals(function, arguments);
+        if (function instanceof RopeFunction)
+            return ((RopeFunction) function).executeLazy(arguments);
+        return function.execute(flatten(function, arguments));
+    }
+
+    /**
+     * Executes the named function, measuring it when metrics are enabled.
+     */
+    public static Object execute (String name, Function function, Object... arguments) throws FunctionException {
+        long start = Metrics.start();
+        try {
+            return execute(function, arguments);
+        } finally {
+            if (start != 0) Metrics.metrics().functionCalled(name, System.nanoTime() - start);
+        }
+    }
+
+    public static void stream (String name, StreamingFunction function, OutputStream outputStream, Object... arguments) throws FunctionException {
+        long start = Metrics.start();
+        try {
+            copyLiterals(function, arguments);
+            function.execute(outputStream, flatten(function, arguments));
+        } finally {
+            if (start != 0) Metrics.metrics().functionCalled(name, System.nanoTime() - start);
+        }
+    }
+
+    private static Object[] flatten (Function function, Object... arguments) {
+        flatten(arguments);
+        if (!(function instanceof SafeStringFunction))
+            for (int i = 0; i < arguments.length; i++)
+                arguments[i] = SafeString.flatten(arguments[i]);
+        return arguments;
+    }
+
+    private static void copyLiterals (Function function, Object... arguments) {
+        if (isBuiltIn(function)) return;
+        for (int i = 0; i < arguments.length; i++)
+            if (arguments[i] instanceof LiteralMap)
+                arguments[i] = new LinkedHashMap<String, Object>((LiteralMap) arguments[i]);
+    }
+
+    public static Object[] flatten (Object... arguments) {
+        for (int i = 0; i < arguments.length; i++)
+            arguments[i] = Rope.flatten(arguments[i]);
+        return arguments;
+    }
+
+    public static void write (Object value, OutputStream outputStream) throws IOException {
+        if (value instanceof Rope)
+            ((Rope) value).write(outputStream);
+        else
+            outputStream.write(String.valueOf(value).getBytes());
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.warmup;
+
+import com.lyncode.jtwig.JtwigTemplate;
+import com.lyncode.jtwig.exception.CompileException;
+import com.lyncode.jtwig.exception.ParseException;
+import com.lyncode.jtwig.resource.ClasspathJtwigResource;
+import com.lyncode.jtwig.resource.FileJtwigResource;
+import com.lyncode.jtwig.resource.JtwigResource;
+import com.lyncode.jtwig.tree.content.Content;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Compiles a whole tree of templates in parallel, usually at startup, so
+ * that the first requests don't pay for it.
+ */
+public class TemplateWarmup {
+    public interface Compiler {
+        Content compile (String name, JtwigResource resource) throws ParseException, CompileException;
+    }
+
+    public static final Compiler JTWIG_COMPILER = new Compiler() {
+        @Override
+        public Content compile(String name, JtwigResource resource) throws ParseException, CompileException {
+            return new JtwigTemplate(resource).compile();
+        }
+    };
+
+    /**
+     * Every file under the given directory with the given suffix, by path
+     * relative to the directory.
+     */
+    public static Map<String, JtwigResource> fileTemplates (File root, String suffix) {
+        Map<String, JtwigResource> result = new TreeMap<String, JtwigResource>();
+        addFiles(root, "", suffix, result);
+        return result;
+    }
+
+    /**
+     * Every classpath resource under the given path (in directories or jars)
+     * with the given suffix, by classpath path.
+     */
+    public static Map<String, JtwigResource> classpathTemplates (String root, String suffix) throws IOException {
+        String prefix = root.startsWith("/") ? root.substring(1) : root;
+        if (prefix.length() > 0 && !prefix.endsWith("/")) prefix += "/";
+
+        Map<String, JtwigResource> result = new TreeMap<String, JtwigResource>();
+        Enumeration<URL> urls = TemplateWarmup.class.getClassLoader().getResources(prefix);
+        while (urls.hasMoreElements()) {
+            URL url = urls.nextElement();
+            if ("file".equals(url.getProtocol())) {
+                for (String path : fileTemplates(new File(URLDecoder.decode(url.getPath(), "UTF-8")), suffix).keySet())
+                    result.put(prefix + path, new ClasspathJtwigResource(prefix + path));
+            } else if ("jar".equals(url.getProtocol())) {
+                JarFile jar = ((JarURLConnection) url.openConnection()).getJarFile();
+                Enumeration<JarEntry> entries = jar.entries();
+                while (entries.hasMoreElements()) {
+                    String name = entries.nextElement().getName();
+                    if (name.startsWith(prefix) && name.endsWith(suffix))
+                        result.put(name, new ClasspathJtwigResource(name));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void addFiles (File directory, String path, String suffix, Map<String, JtwigResource> result) {
+        File[] files = directory.listFiles();
+        if (files == null) return;
+        for (File file : files) {
+            if (file.isDirectory())
+                addFiles(file, path + file.getName() + "/", suffix, result);
+            else if (file.getName().endsWith(suffix))
+                result.put(path + file.getName(), new FileJtwigResource(file));
+        }
+    }
+
+    private final int threads;
+
+    public TemplateWarmup() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public TemplateWarmup(int threads) {
+        this.threads = threads;
+    }
+
+    public WarmupReport warmup (Map<String, JtwigResource> templates) throws InterruptedException {
+        return warmup(templates, JTWIG_COMPILER);
+    }
+
+    /**
+     * Compiles all templates, returning once every one of them is done.
+     */
+    public WarmupReport warmup (Map<String, JtwigResource> templates, final Compiler compiler) throws InterruptedException {
+        final WarmupReport report = new WarmupReport();
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, templates.size())));
+        try {
+            List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+            for (final Map.Entry<String, JtwigResource> template : templates.entrySet()) {
+                tasks.add(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        long begin = System.nanoTime();
+                        try {
+                            Content content = compiler.compile(template.getKey(), template.getValue());
+                            report.success(template.getKey(), content, System.nanoTime() - begin);
+                        } catch (Exception e) {
+                            report.failure(template.getKey(), e, System.nanoTime() - begin);
+                        }
+                        return null;
+                    }
+                });
+            }
+            executor.invokeAll(tasks);
+        } finally {
+            executor.shutdownNow();
+        }
+        report.setTotalTime(System.nanoTime() - start);
+        return report;
+    }
+}
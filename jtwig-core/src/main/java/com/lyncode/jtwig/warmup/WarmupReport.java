@@ -0,0 +1,88 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.warmup;
+
+import com.lyncode.jtwig.tree.content.Content;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of a {@link TemplateWarmup}: the compiled templates with the time
+ * each one took, and the ones which failed.
+ */
+public class WarmupReport {
+    private final Map<String, Content> compiled = new TreeMap<String, Content>();
+    private final Map<String, Long> compileTimes = new TreeMap<String, Long>();
+    private final Map<String, Exception> failures = new TreeMap<String, Exception>();
+    private long totalTime;
+
+    synchronized void success(String name, Content content, long nanos) {
+        compiled.put(name, content);
+        compileTimes.put(name, nanos);
+    }
+
+    synchronized void failure(String name, Exception exception, long nanos) {
+        failures.put(name, exception);
+        compileTimes.put(name, nanos);
+    }
+
+    void setTotalTime(long nanos) {
+        this.totalTime = nanos;
+    }
+
+    public Map<String, Content> getCompiled() {
+        return Collections.unmodifiableMap(compiled);
+    }
+
+    /**
+     * Compile time in milliseconds of every template, failed ones included.
+     */
+    public Map<String, Long> getCompileTimes() {
+        Map<String, Long> result = new TreeMap<String, Long>();
+        for (Map.Entry<String, Long> entry : compileTimes.entrySet())
+            result.put(entry.getKey(), TimeUnit.NANOSECONDS.toMillis(entry.getValue()));
+        return result;
+    }
+
+    public Map<String, Exception> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    /**
+     * Wall clock time of the whole warmup, in milliseconds.
+     */
+    public long getTotalTime() {
+        return TimeUnit.NANOSECONDS.toMillis(totalTime);
+    }
+
+    public String toString() {
+        StringBuilder builder = new StringBuilder()
+                .append(compiled.size()).append(" templates compiled, ")
+                .append(failures.size()).append(" failed in ")
+                .append(getTotalTime()).append("ms");
+        for (Map.Entry<String, Exception> entry : failures.entrySet())
+            builder.append("\n  ").append(entry.getKey()).append(": ").append(entry.getValue().getMessage());
+        return builder.toString();
+    }
+}
@@ -16,14 +16,24 @@
 
 package com.lyncode.jtwig;
 
+import com.lyncode.jtwig.functions.Function;
+import com.lyncode.jtwig.functions.exceptions.FunctionException;
+import com.lyncode.jtwig.functions.repository.DefaultFunctionRepository;
+import com.lyncode.jtwig.functions.repository.FunctionDeclaration;
 import com.lyncode.jtwig.tree.value.FunctionElement;
 import com.lyncode.jtwig.tree.value.Selection;
 import com.lyncode.jtwig.tree.value.Variable;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Map;
 
+import static com.lyncode.jtwig.functions.repository.FunctionDeclaration.Scope.GLOBAL;
+import static com.lyncode.jtwig.functions.repository.FunctionDeclaration.Scope.LOCALE;
+import static com.lyncode.jtwig.functions.repository.FunctionDeclaration.Scope.REQUEST;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -60,4 +70,56 @@ public class JtwigContextTest {
         );
         assertThat(resolver.resolve(selection), is((Object) "a"));
     }
+
+    @Test
+    public void shouldReusePureFunctionResultsWithinTheirScope() throws Exception {
+        Counter counter = new Counter();
+        DefaultFunctionRepository repository = new DefaultFunctionRepository(
+                new FunctionDeclaration(counter, "global").pure(GLOBAL),
+                new FunctionDeclaration(counter, "locale").pure(LOCALE),
+                new FunctionDeclaration(counter, "request").pure(REQUEST),
+                new FunctionDeclaration(counter, "impure")
+        );
+        JtwigContext first = new JtwigContext(modelMap, repository).withLocale(Locale.ENGLISH);
+        JtwigContext second = new JtwigContext(modelMap, repository).withLocale(Locale.FRENCH);
+
+        assertThat(first.execute("global", "a"), is(second.execute("global", "a")));
+        assertThat(first.execute("global", "a"), is(not(first.execute("global", "b"))));
+        assertThat(first.execute("locale", "a"), is(not(second.execute("locale", "a"))));
+        assertThat(first.execute("locale", "a"), is(first.execute("locale", "a")));
+        assertThat(first.execute("request", "a"), is(not(second.execute("request", "a"))));
+        assertThat(first.execute("request", "a"), is(first.execute("request", "a")));
+        assertThat(first.execute("impure", "a"), is(not(first.execute("impure", "a"))));
+        assertThat(repository.getResultCache().getHitCount(), is(4L));
+    }
+
+    @Test
+    public void userFunctionsMayModifyMapLiterals() throws Exception {
+        DefaultFunctionRepository repository = new DefaultFunctionRepository(
+                new FunctionDeclaration(new Put(), "put")
+        );
+        JtwigContext context = new JtwigContext(new JtwigModelMap(), repository);
+        JtwigTemplate template = new JtwigTemplate("{% for i in 1..2 %}{{ put({ a: 1 }) }}{% endfor %}");
+
+        assertThat(template.output(context), is("22"));
+    }
+
+    private static class Put implements Function {
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object execute(Object... arguments) throws FunctionException {
+            Map<String, Object> map = (Map<String, Object>) arguments[0];
+            map.put("b", 2);
+            return map.size();
+        }
+    }
+
+    private static class Counter implements Function {
+        private int calls = 0;
+
+        @Override
+        public Object execute(Object... arguments) throws FunctionException {
+            return ++calls;
+        }
+    }
 }
@@ -76,6 +76,15 @@ public class JtwigTemplateTest {
         assertThat(theOutput(), is("Block one and two"));
     }
 
+    @Test
+    public void outputToStringAndBytes() throws Exception {
+        JtwigTemplate template = new JtwigTemplate("{% for i in 1..3 %}{{ i }}{% endfor %}");
+
+        assertThat(template.output(context), is("123"));
+        assertThat(new String(template.outputBytes(context)), is("123"));
+        assertThat(template.output(context), is("123"));
+    }
+
     private String theOutput() {
         return outputStream.toString();
     }
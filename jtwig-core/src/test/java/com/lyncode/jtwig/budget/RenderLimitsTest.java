@@ -0,0 +1,104 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.budget;
+
+import com.lyncode.jtwig.JtwigContext;
+import com.lyncode.jtwig.JtwigTemplate;
+import com.lyncode.jtwig.exception.CompileException;
+import com.lyncode.jtwig.exception.RenderLimitExceededException;
+import com.lyncode.jtwig.resource.ClasspathJtwigResource;
+import com.lyncode.jtwig.tree.structural.IncludeExpression;
+import org.junit.Test;
+
+import static com.lyncode.jtwig.budget.RenderLimits.limits;
+import static com.lyncode.jtwig.exception.RenderLimitExceededException.Limit;
+import static org.hamcrest.CoreMatchers.endsWith;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class RenderLimitsTest {
+    @Test
+    public void rendersWithinLimits() throws Exception {
+        JtwigContext context = new JtwigContext().withLimits(limits().withMaxIterations(3).withMaxOutputBytes(3).withMaxDepth(2));
+        JtwigTemplate template = new JtwigTemplate("{% for i in 1..3 %}{{ i }}{% endfor %}");
+        assertThat(template.output(context), is("123"));
+        assertThat(template.output(context), is("123"));
+    }
+
+    @Test
+    public void limitsIterations() throws Exception {
+        assertExceeds(Limit.ITERATIONS, "{% for i in 1..3 %}{% for j in 1..3 %}{% endfor %}{% endfor %}",
+                limits().withMaxIterations(10));
+    }
+
+    @Test
+    public void limitsOutput() throws Exception {
+        assertExceeds(Limit.OUTPUT_BYTES, "{% for i in 1..100 %}{{ i }}{% endfor %}",
+                limits().withMaxOutputBytes(100));
+    }
+
+    @Test
+    public void limitsDepth() throws Exception {
+        assertExceeds(Limit.DEPTH, "{% if true %}{% for i in 1..2 %}{% block a %}{% endblock %}{% endfor %}{% endif %}",
+                limits().withMaxDepth(3));
+    }
+
+    @Test
+    public void limitsTime() throws Exception {
+        assertExceeds(Limit.TIME, "{% for i in 1..100000 %}{% if i > 0 %}{% endif %}{% endfor %}",
+                limits().withTimeout(1));
+    }
+
+    @Test
+    public void stopsRecursiveIncludes() throws Exception {
+        RenderLimitExceededException exceeded = recursiveInclude();
+        assertThat(exceeded.getLimit(), is(Limit.INCLUDE_DEPTH));
+        assertThat(exceeded.getMessage(), endsWith("over " + IncludeExpression.DEFAULT_MAX_DEPTH));
+    }
+
+    @Test
+    public void includeDepthIsConfigurable() throws Exception {
+        IncludeExpression.setMaxDepth(3);
+        try {
+            assertThat(recursiveInclude().getMessage(), endsWith("over 3"));
+        } finally {
+            IncludeExpression.setMaxDepth(IncludeExpression.DEFAULT_MAX_DEPTH);
+        }
+    }
+
+    private RenderLimitExceededException recursiveInclude() throws Exception {
+        try {
+            new JtwigTemplate(new ClasspathJtwigResource("budget/recursive.twig")).output(new JtwigContext());
+            fail();
+            return null;
+        } catch (CompileException e) {
+            Throwable cause = e;
+            while (!(cause instanceof RenderLimitExceededException)) cause = cause.getCause();
+            return (RenderLimitExceededException) cause;
+        }
+    }
+
+    private void assertExceeds(Limit limit, String template, RenderLimits limits) throws Exception {
+        try {
+            new JtwigTemplate(template).output(new JtwigContext().withLimits(limits));
+            fail();
+        } catch (RenderLimitExceededException e) {
+            assertThat(e.getLimit(), is(limit));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.cache;
+
+import com.lyncode.jtwig.exception.RenderException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class InMemoryFragmentCacheTest {
+    private final InMemoryFragmentCache underTest = new InMemoryFragmentCache(16);
+
+    @Test
+    public void expiredFragmentsAreRenderedAgain() throws Exception {
+        CountingRenderer renderer = new CountingRenderer("abc");
+        underTest.get("key", 1, renderer);
+        Thread.sleep(5);
+        underTest.get("key", 1, renderer);
+        assertThat(renderer.renders.get(), is(2));
+    }
+
+    @Test
+    public void evictsWhenExceedingTheMaximumSize() throws Exception {
+        CountingRenderer renderer = new CountingRenderer("0123456789");
+        underTest.get("a", 0, renderer);
+        underTest.get("b", 0, renderer);
+        underTest.get("a", 0, renderer);
+        assertThat(renderer.renders.get(), is(3));
+    }
+
+    @Test
+    public void textKeysCountTowardsTheMaximumSize() throws Exception {
+        CountingRenderer renderer = new CountingRenderer("a");
+        underTest.get("key-a", 0, renderer);
+        underTest.get("key-b", 0, renderer);
+        underTest.get("key-a", 0, renderer);
+        assertThat(renderer.renders.get(), is(3));
+    }
+
+    @Test
+    public void concurrentMissesRenderOnce() throws Exception {
+        final CountDownLatch rendering = new CountDownLatch(1);
+        final CountingRenderer renderer = new CountingRenderer("abc") {
+            @Override
+            public byte[] render() throws RenderException {
+                try {
+                    rendering.await(100, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    throw new RenderException(e);
+                }
+                return super.render();
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<byte[]>> results = new ArrayList<Future<byte[]>>();
+            for (int i = 0; i < 4; i++)
+                results.add(executor.submit(new Callable<byte[]>() {
+                    @Override
+                    public byte[] call() throws Exception {
+                        return underTest.get("key", 0, renderer);
+                    }
+                }));
+            rendering.countDown();
+            for (Future<byte[]> result : results)
+                assertThat(new String(result.get()), is("abc"));
+            assertThat(renderer.renders.get(), is(1));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class CountingRenderer implements FragmentCache.Renderer {
+        private final AtomicInteger renders = new AtomicInteger();
+        private final String content;
+
+        private CountingRenderer(String content) {
+            this.content = content;
+        }
+
+        @Override
+        public byte[] render() throws RenderException {
+            renders.incrementAndGet();
+            return content.getBytes();
+        }
+    }
+}
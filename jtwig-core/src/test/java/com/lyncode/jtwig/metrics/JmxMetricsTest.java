@@ -0,0 +1,85 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.metrics;
+
+import com.lyncode.jtwig.JtwigContext;
+import com.lyncode.jtwig.JtwigTemplate;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class JmxMetricsTest {
+    private JmxMetrics metrics;
+
+    @Before
+    public void setUp() throws Exception {
+        metrics = JmxMetrics.install();
+    }
+
+    @After
+    public void tearDown() {
+        Metrics.setMetrics(null);
+    }
+
+    @Test
+    public void recordsTemplateAndFunctionMeasurements() throws Exception {
+        JtwigTemplate template = new JtwigTemplate("{{ value | upper }}{{ value | upper }}");
+        template.output(new JtwigContext().withModelAttribute("value", "abc"));
+
+        assertThat(metrics.getParseTimes().get("string").getCount(), is(1L));
+        assertThat(metrics.getCompileTimes().get("string").getCount(), is(1L));
+        assertThat(metrics.getRenderTimes().get("string").getCount(), is(1L));
+        assertThat(metrics.getOutputBytes().get("string"), is(6L));
+        assertThat(metrics.getFunctionTimes().get("upper").getCount(), is(2L));
+    }
+
+    @Test
+    public void recordsCacheHitRates() throws Exception {
+        metrics.cacheAccessed("fragment", false);
+        metrics.cacheAccessed("fragment", true);
+        metrics.cacheAccessed("fragment", true);
+        metrics.cacheAccessed("fragment", true);
+        assertThat(metrics.getCacheHitRates().get("fragment"), is(0.75));
+    }
+
+    @Test
+    public void histogramPercentilesAreBucketUpperBounds() throws Exception {
+        Histogram histogram = new Histogram();
+        for (int i = 0; i < 99; i++)
+            histogram.record(1500000);
+        histogram.record(50000000);
+        assertThat(histogram.percentileMillis(0.5), is(2.048));
+        assertThat(histogram.percentileMillis(1), is(50.0));
+    }
+
+    @Test
+    public void isExportedThroughJmx() throws Exception {
+        new JtwigTemplate("a").output(new JtwigContext());
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        TabularData renderTimes = (TabularData) server.getAttribute(new ObjectName(JmxMetrics.OBJECT_NAME), "RenderTimes");
+        assertThat(renderTimes.get(new Object[]{"string"}), notNullValue());
+    }
+}
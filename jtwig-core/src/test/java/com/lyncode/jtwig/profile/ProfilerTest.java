@@ -0,0 +1,67 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.profile;
+
+import com.lyncode.jtwig.JtwigContext;
+import com.lyncode.jtwig.JtwigTemplate;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ProfilerTest {
+    private final JtwigTemplate template = new JtwigTemplate("{% for i in 1..3 %}{{ i }}{% endfor %}{% if value %}{{ value | upper }}{% endif %}");
+
+    @Test
+    public void countsInvocationsOfEachNode() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ProfileNode root = template.profile(outputStream, new JtwigContext().withModelAttribute("value", "a"));
+
+        assertThat(outputStream.toString(), is("123A"));
+        assertThat(root.getLabel(), is("string"));
+        assertThat(root.getCount(), is(1L));
+
+        ProfileNode loop = root.getChildren().get(0);
+        assertThat(loop.getLabel(), containsString("for i in"));
+        assertThat(loop.getCount(), is(1L));
+        ProfileNode item = loop.getChildren().get(1);
+        assertThat(item.getLabel(), is("{{ i }}"));
+        assertThat(item.getCount(), is(3L));
+
+        ProfileNode condition = root.getChildren().get(1);
+        assertThat(condition.getChildren().get(0).getLabel(), containsString("expression"));
+        assertThat(condition.getTotalTime() >= condition.getSelfTime(), is(true));
+    }
+
+    @Test
+    public void leavesTheTemplateUndecorated() throws Exception {
+        template.profile(new ByteArrayOutputStream(), new JtwigContext());
+        assertThat(template.compile().getList().get(0).getClass().getSimpleName(), is("ForExpression"));
+    }
+
+    @Test
+    public void reportsInEachFormat() throws Exception {
+        ProfileNode root = template.profile(new ByteArrayOutputStream(), new JtwigContext().withModelAttribute("value", "a"));
+
+        assertThat(ProfileReport.text(root), containsString("    {{ i }}"));
+        assertThat(ProfileReport.json(root), containsString("\"label\":\"{{ i }}\",\"count\":3"));
+        assertThat(ProfileReport.collapsed(root), containsString("string;"));
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.util;
+
+import com.lyncode.jtwig.JtwigContext;
+import com.lyncode.jtwig.JtwigTemplate;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ChunkedOutputStreamTest {
+    private final FlushRecorder underlying = new FlushRecorder();
+
+    @Test
+    public void flushesWheneverTheChunkIsFull() throws Exception {
+        ChunkedOutputStream underTest = new ChunkedOutputStream(underlying, 4);
+        underTest.write("abcdefghij".getBytes());
+        assertThat(underlying.flushed, is(asList("abcd", "efgh")));
+
+        underTest.flush();
+        assertThat(underlying.flushed, is(asList("abcd", "efgh", "ij")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void chunkSizeMustBePositive() throws Exception {
+        new ChunkedOutputStream(new ByteArrayOutputStream(), 0);
+    }
+
+    @Test
+    public void flushTagSendsWhatWasRenderedSoFar() throws Exception {
+        ChunkedOutputStream underTest = new ChunkedOutputStream(underlying, 1024);
+        new JtwigTemplate("<head>{% flush %}<body>").output(underTest, new JtwigContext());
+        underTest.flush();
+        assertThat(underlying.flushed, is(asList("<head>", "<body>")));
+    }
+
+    private static class FlushRecorder extends ByteArrayOutputStream {
+        private final List<String> flushed = new ArrayList<String>();
+
+        @Override
+        public void flush() throws IOException {
+            flushed.add(toString());
+            reset();
+        }
+    }
+}
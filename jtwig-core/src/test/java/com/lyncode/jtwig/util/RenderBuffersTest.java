@@ -0,0 +1,58 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.util;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class RenderBuffersTest {
+    @Test
+    public void buffersAreReusedPresizedAndEmpty() throws Exception {
+        RenderBuffers.Buffer buffer = RenderBuffers.acquire(0);
+        buffer.write("hello".getBytes());
+        RenderBuffers.release(buffer);
+
+        RenderBuffers.Buffer again = RenderBuffers.acquire(4096);
+        assertThat(again, is(sameInstance(buffer)));
+        assertThat(again.size(), is(0));
+        assertThat(again.capacity() >= 4096, is(true));
+        RenderBuffers.release(again);
+    }
+
+    @Test
+    public void oversizedBuffersAreNotKept() throws Exception {
+        RenderBuffers.Buffer buffer = RenderBuffers.acquire(RenderBuffers.MAX_RETAINED_SIZE + 1);
+        RenderBuffers.release(buffer);
+
+        RenderBuffers.Buffer again = RenderBuffers.acquire(0);
+        assertThat(again, is(not(sameInstance(buffer))));
+        RenderBuffers.release(again);
+    }
+
+    @Test
+    public void nestedRenderingGetsItsOwnBuffer() throws Exception {
+        RenderBuffers.Buffer outer = RenderBuffers.acquire(0);
+        RenderBuffers.Buffer inner = RenderBuffers.acquire(0);
+        assertThat(inner, is(not(sameInstance(outer))));
+        RenderBuffers.release(inner);
+        RenderBuffers.release(outer);
+    }
+}
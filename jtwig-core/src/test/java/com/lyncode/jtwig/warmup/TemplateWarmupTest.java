@@ -0,0 +1,38 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.warmup;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static com.lyncode.jtwig.warmup.TemplateWarmup.classpathTemplates;
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class TemplateWarmupTest {
+    @Test
+    public void compilesEveryTemplateReportingFailures() throws Exception {
+        WarmupReport report = new TemplateWarmup(2).warmup(classpathTemplates("warmup", ".twig"));
+
+        assertThat(new ArrayList<String>(report.getCompiled().keySet()), is(asList("warmup/hello.twig")));
+        assertThat(new ArrayList<String>(report.getFailures().keySet()), is(asList("warmup/nested/broken.twig")));
+        assertThat(report.getCompileTimes().size(), is(2));
+        assertThat(report.hasFailures(), is(true));
+    }
+}
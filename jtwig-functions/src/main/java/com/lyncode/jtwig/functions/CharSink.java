@@ -0,0 +1,31 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.functions;
+
+import java.io.IOException;
+
+/**
+ * Receives the characters of a value one at a time, see {@link FusibleFunction}.
+ */
+public interface CharSink {
+    void append (char character) throws IOException;
+
+    /**
+     * Called once after the last character.
+     */
+    void end () throws IOException;
+}
@@ -0,0 +1,39 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.functions;
+
+import com.lyncode.jtwig.functions.exceptions.FunctionException;
+
+/**
+ * A string filter that can be applied character by character. Adjacent
+ * fusible filters in a filter chain are combined into a single pass over
+ * the input, without the intermediate Strings.
+ */
+public interface FusibleFunction extends Function {
+    /**
+     * Whether the transformation is only exact for ASCII input. Chains with
+     * such a filter are executed unfused when the input isn't ASCII.
+     */
+    boolean isAsciiOnly ();
+
+    /**
+     * Returns a sink applying this function to the characters it receives
+     * and passing the result on to the next one, or null when the call
+     * can't be fused. The input (first argument) isn't known yet and is null.
+     */
+    CharSink fuse (CharSink next, Object... arguments) throws FunctionException;
+}
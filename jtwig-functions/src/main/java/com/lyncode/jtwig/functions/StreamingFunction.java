@@ -0,0 +1,30 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.functions;
+
+import com.lyncode.jtwig.functions.exceptions.FunctionException;
+
+import java.io.OutputStream;
+
+/**
+ * A function able to write its result directly to the render output.
+ * Used when the function call is the outermost part of an output expression,
+ * avoiding the intermediate String.
+ */
+public interface StreamingFunction extends Function {
+    void execute (OutputStream outputStream, Object... arguments) throws FunctionException;
+}
@@ -30,6 +30,7 @@ public class FunctionDeclarationBuilder {
     private final Function function;
     private String name;
     private List<String> aliases = new ArrayList<String>();
+    private FunctionDeclaration.Scope scope;
 
     public FunctionDeclarationBuilder(Function function) {
         this.function = function;
@@ -45,8 +46,14 @@ public class FunctionDeclarationBuilder {
         return this;
     }
 
+    public FunctionDeclarationBuilder pure (FunctionDeclaration.Scope scope) {
+        this.scope = scope;
+        return this;
+    }
+
     public FunctionDeclaration build () {
         return new FunctionDeclaration(this.function, this.name,
-                this.aliases.toArray(new String[this.aliases.size()]));
+                this.aliases.toArray(new String[this.aliases.size()]))
+                .pure(this.scope);
     }
 }
@@ -19,24 +19,25 @@ package com.lyncode.jtwig.functions.internal.date;
 import com.lyncode.jtwig.functions.Function;
 import com.lyncode.jtwig.functions.exceptions.FunctionException;
 
-import java.text.SimpleDateFormat;
 import java.util.Date;
 
+import static com.lyncode.jtwig.functions.util.Formatters.dateFormat;
 import static com.lyncode.jtwig.functions.util.Requirements.between;
 import static com.lyncode.jtwig.functions.util.Requirements.requires;
 import static org.hamcrest.CoreMatchers.instanceOf;
 
 public class DateFormat implements Function {
+    private static final String DEFAULT_FORMAT = "yyyy-MM-dd HH:mm:ss";
+
     @Override
     public Object execute(Object... arguments) throws FunctionException {
         requires(arguments)
                 .withNumberOfArguments(between(1, 2))
                 .withArgument(0, instanceOf(Date.class));
 
-        java.text.DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
         if (arguments.length == 2)
-            dateFormat = new SimpleDateFormat(arguments[1].toString());
+            return dateFormat(arguments[1].toString()).format(arguments[0]);
 
-        return dateFormat.format(arguments[0]);
+        return dateFormat(DEFAULT_FORMAT).format(arguments[0]);
     }
 }
@@ -24,14 +24,15 @@ import org.hamcrest.Description;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static com.lyncode.jtwig.functions.util.Requirements.requires;
-import static java.util.regex.Pattern.compile;
 import static org.hamcrest.CoreMatchers.*;
 
 public class DateModify implements Function {
 
     private static final String PATTERN = "^([\\\\+\\\\-])([0-9]+) ([a-zA-Z]+)$";
+    private static final Pattern COMPILED_PATTERN = Pattern.compile(PATTERN);
 
     @Override
     public Object execute(Object... arguments) throws FunctionException {
@@ -39,7 +40,7 @@ public class DateModify implements Function {
                 .withNumberOfArguments(equalTo(2))
                 .withArgument(0, instanceOf(Date.class))
                 .withArgument(1, notNullValue())
-                .withArgument(1, hasPattern(PATTERN));
+                .withArgument(1, hasPattern(COMPILED_PATTERN));
 
 
         Calendar instance = Calendar.getInstance();
@@ -47,7 +48,7 @@ public class DateModify implements Function {
 
         String modifyString = arguments[1].toString().trim();
 
-        Matcher matcher = compile(PATTERN).matcher(modifyString);
+        Matcher matcher = COMPILED_PATTERN.matcher(modifyString);
         matcher.find();
         int signal = 1;
 
@@ -75,11 +76,11 @@ public class DateModify implements Function {
         return instance.getTime();
     }
 
-    private BaseMatcher<Object> hasPattern(final String pattern) {
+    private BaseMatcher<Object> hasPattern(final Pattern pattern) {
         return new BaseMatcher<Object>() {
             @Override
             public boolean matches(Object item) {
-                return item.toString().matches(pattern);
+                return pattern.matcher(item.toString()).matches();
             }
 
             @Override
@@ -18,7 +18,6 @@ package com.lyncode.jtwig.functions.internal.generic;
 
 import com.lyncode.jtwig.functions.Function;
 import com.lyncode.jtwig.functions.exceptions.FunctionException;
-import com.lyncode.jtwig.functions.util.ObjectIterator;
 
 import java.util.Iterator;
 import java.util.Map;
@@ -33,15 +32,20 @@ public class First implements Function {
         requires(arguments)
                 .withNumberOfArguments(equalTo(1));
 
-        if ((arguments[0] instanceof Iterable) || arguments[0].getClass().isArray()) {
-            ObjectIterator objectIterator = new ObjectIterator(arguments[0]);
-            if (objectIterator.hasNext()) return objectIterator.next();
+        if (arguments[0] instanceof Iterable) {
+            Iterator<?> iterator = ((Iterable<?>) arguments[0]).iterator();
+            if (iterator.hasNext()) return iterator.next();
+            else return null;
+        }
+        else if (arguments[0].getClass().isArray()) {
+            Object[] array = (Object[]) arguments[0];
+            if (array.length > 0) return array[0];
             else return null;
         }
         else if (arguments[0] instanceof Map) {
-            Iterator iterator = ((Map) arguments[0]).keySet().iterator();
+            Iterator<?> iterator = ((Map<?, ?>) arguments[0]).keySet().iterator();
             if (iterator.hasNext())
-                return ((Map) arguments[0]).get(iterator.next());
+                return ((Map<?, ?>) arguments[0]).get(iterator.next());
             else
                 return null;
         }
@@ -16,28 +16,88 @@
 
 package com.lyncode.jtwig.functions.internal.generic;
 
-import com.lyncode.jtwig.functions.Function;
+import com.lyncode.jtwig.functions.StreamingFunction;
 import com.lyncode.jtwig.functions.exceptions.FunctionException;
 import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.ObjectWriter;
 
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
 
 import static com.lyncode.jtwig.functions.util.Requirements.requires;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.notNullValue;
 
-public class JsonEncode implements Function {
-    private ObjectMapper mapper = new ObjectMapper();
+public class JsonEncode implements StreamingFunction {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final ObjectWriter writer;
+
+    public JsonEncode() {
+        this(new ObjectMapper().writer());
+    }
+
+    public JsonEncode(ObjectWriter writer) {
+        this.writer = writer;
+    }
+
     @Override
     public Object execute(Object... arguments) throws FunctionException {
-        requires(arguments)
-                .withNumberOfArguments(equalTo(1))
-                .withArgument(0, notNullValue());
+        validate(arguments);
 
         try {
-            return mapper.writeValueAsString(arguments[0]);
+            return writer.writeValueAsString(arguments[0]);
         } catch (IOException e) {
             throw new FunctionException(e);
         }
     }
+
+    /**
+     * Serializes straight into the output. Rendered text is encoded with
+     * the platform charset, so anything but UTF-8 goes through a writer.
+     */
+    @Override
+    public void execute(OutputStream outputStream, Object... arguments) throws FunctionException {
+        validate(arguments);
+
+        try {
+            OutputStream output = new RenderOutputStream(outputStream);
+            if (UTF8.equals(Charset.defaultCharset()))
+                writer.writeValue(output, arguments[0]);
+            else
+                writer.writeValue(new OutputStreamWriter(output, Charset.defaultCharset()), arguments[0]);
+        } catch (IOException e) {
+            throw new FunctionException(e);
+        }
+    }
+
+    private void validate(Object... arguments) throws FunctionException {
+        requires(arguments)
+                .withNumberOfArguments(equalTo(1))
+                .withArgument(0, notNullValue());
+    }
+
+    /**
+     * Jackson closes its target once the value is written, the render
+     * output belongs to the caller so closing and flushing are ignored.
+     */
+    private static class RenderOutputStream extends FilterOutputStream {
+        private RenderOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+    }
 }
@@ -18,9 +18,9 @@ package com.lyncode.jtwig.functions.internal.generic;
 
 import com.lyncode.jtwig.functions.Function;
 import com.lyncode.jtwig.functions.exceptions.FunctionException;
-import com.lyncode.jtwig.functions.util.ObjectIterator;
 
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import static com.lyncode.jtwig.functions.util.Requirements.requires;
@@ -33,22 +33,32 @@ public class Last implements Function {
         requires(arguments)
                 .withNumberOfArguments(equalTo(1));
 
-        if ((arguments[0] instanceof Iterable) || arguments[0].getClass().isArray()) {
-            ObjectIterator objectIterator = new ObjectIterator(arguments[0]);
+        if (arguments[0] instanceof List) {
+            List<?> list = (List<?>) arguments[0];
+            if (list.isEmpty()) return null;
+            return list.get(list.size() - 1);
+        }
+        else if (arguments[0] instanceof Iterable) {
+            Iterator<?> iterator = ((Iterable<?>) arguments[0]).iterator();
             Object current = null;
-            while (objectIterator.hasNext())
-                current = objectIterator.next();
+            while (iterator.hasNext())
+                current = iterator.next();
             return current;
         }
+        else if (arguments[0].getClass().isArray()) {
+            Object[] array = (Object[]) arguments[0];
+            if (array.length == 0) return null;
+            return array[array.length - 1];
+        }
         else if (arguments[0] instanceof Map) {
-            Iterator iterator = ((Map) arguments[0]).keySet().iterator();
+            Iterator<?> iterator = ((Map<?, ?>) arguments[0]).keySet().iterator();
             Object current = null;
             while (iterator.hasNext())
                 current = iterator.next();
             if (current == null)
                 return null;
             else
-                return (((Map) arguments[0]).get(current));
+                return (((Map<?, ?>) arguments[0]).get(current));
         }
         else if (arguments[0] instanceof String) {
             String argument = (String) arguments[0];
@@ -18,10 +18,10 @@ package com.lyncode.jtwig.functions.internal.generic;
 
 import com.lyncode.jtwig.functions.Function;
 import com.lyncode.jtwig.functions.exceptions.FunctionException;
-import com.lyncode.jtwig.functions.util.ObjectIterator;
 
 import java.util.Map;
 
+import static com.lyncode.jtwig.functions.util.ListViews.size;
 import static com.lyncode.jtwig.functions.util.Requirements.requires;
 import static org.hamcrest.CoreMatchers.equalTo;
 
@@ -32,7 +32,7 @@ public class Length implements Function {
                 .withNumberOfArguments(equalTo(1));
 
         if ((arguments[0] instanceof Iterable) || arguments[0].getClass().isArray())
-            return new ObjectIterator(arguments[0]).size();
+            return size(arguments[0]);
         else if (arguments[0] instanceof Map)
             return ((Map) arguments[0]).size();
         else if (arguments[0] instanceof String)
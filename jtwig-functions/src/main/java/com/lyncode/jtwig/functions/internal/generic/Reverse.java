@@ -18,12 +18,9 @@ package com.lyncode.jtwig.functions.internal.generic;
 
 import com.lyncode.jtwig.functions.Function;
 import com.lyncode.jtwig.functions.exceptions.FunctionException;
-import com.lyncode.jtwig.functions.util.ObjectIterator;
-
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 
+import static com.lyncode.jtwig.functions.util.ListViews.asList;
+import static com.lyncode.jtwig.functions.util.ListViews.reversed;
 import static com.lyncode.jtwig.functions.util.Requirements.requires;
 import static org.hamcrest.CoreMatchers.equalTo;
 
@@ -33,20 +30,19 @@ public class Reverse implements Function {
         requires(arguments)
             .withNumberOfArguments(equalTo(1));
 
-        if ((arguments[0] instanceof Iterable) || arguments[0].getClass().isArray())
-            return reverse(new ObjectIterator(arguments[0]), arguments[0] instanceof Iterable);
+        if (arguments[0] instanceof Iterable)
+            return reversed(asList(arguments[0]));
+        else if (arguments[0].getClass().isArray())
+            return reverse((Object[]) arguments[0]);
         else if (arguments[0] instanceof String)
             return new StringBuilder(((String) arguments[0])).reverse().toString();
         else return 0;
     }
 
-    private Object reverse(ObjectIterator objectIterator, boolean list) {
-        List<Object> result = new ArrayList<Object>();
-        while (objectIterator.hasNext())
-            result.add(objectIterator.next());
-
-        Collections.reverse(result);
-        if (list) return result;
-        else return result.toArray();
+    private Object reverse(Object[] array) {
+        Object[] result = new Object[array.length];
+        for (int i = 0; i < array.length; i++)
+            result[i] = array[array.length - 1 - i];
+        return result;
     }
 }
@@ -18,11 +18,9 @@ package com.lyncode.jtwig.functions.internal.list;
 
 import com.lyncode.jtwig.functions.Function;
 import com.lyncode.jtwig.functions.exceptions.FunctionException;
-import com.lyncode.jtwig.functions.util.ObjectIterator;
-
-import java.util.ArrayList;
-import java.util.List;
 
+import static com.lyncode.jtwig.functions.util.ListViews.asList;
+import static com.lyncode.jtwig.functions.util.ListViews.chunked;
 import static com.lyncode.jtwig.functions.util.Requirements.between;
 import static com.lyncode.jtwig.functions.util.Requirements.requires;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
@@ -34,22 +32,9 @@ public class Batch implements Function {
                 .withNumberOfArguments(between(2, 3))
                 .withArgument(1, instanceOf(Integer.class));
 
-        ObjectIterator iterator = new ObjectIterator(arguments[0]);
         int groupSize = (Integer) arguments[1];
-        boolean end = false;
-        List<List<Object>> result = new ArrayList<List<Object>>();
-        while (iterator.hasNext()) {
-            List<Object> batch = new ArrayList<Object>();
-            for (int i=0;i<groupSize;i++) {
-                if (iterator.hasNext())
-                    batch.add(iterator.next());
-                else if (arguments.length == 3)
-                    batch.add(arguments[2]);
-            }
-            result.add(batch);
-        }
-
-        return result;
+        boolean fill = arguments.length == 3;
+        return chunked(asList(arguments[0]), groupSize, fill, fill ? arguments[2] : null);
     }
 
 
@@ -16,17 +16,21 @@
 
 package com.lyncode.jtwig.functions.internal.list;
 
-import com.lyncode.jtwig.functions.Function;
+import com.lyncode.jtwig.functions.RopeFunction;
 import com.lyncode.jtwig.functions.exceptions.FunctionException;
+import com.lyncode.jtwig.functions.util.Rope;
 
-public class Concatenate implements Function {
+public class Concatenate implements RopeFunction {
     @Override
     public Object execute(Object... arguments) throws FunctionException {
-        String result = "";
-        for (Object obj : arguments)
-            if (obj != null)
-                result += obj.toString();
+        return executeLazy(arguments).toString();
+    }
 
-        return result;
+    @Override
+    public CharSequence executeLazy(Object... arguments) throws FunctionException {
+        Rope.Builder result = Rope.builder();
+        for (Object obj : arguments)
+            result.append(obj);
+        return result.build();
     }
 }
@@ -16,16 +16,24 @@
 
 package com.lyncode.jtwig.functions.internal.list;
 
-import com.lyncode.jtwig.functions.Function;
+import com.lyncode.jtwig.functions.RopeFunction;
 import com.lyncode.jtwig.functions.exceptions.FunctionException;
-import org.apache.commons.lang3.StringUtils;
+import com.lyncode.jtwig.functions.util.Rope;
+
+import java.util.Iterator;
 
 import static com.lyncode.jtwig.functions.util.Requirements.between;
 import static com.lyncode.jtwig.functions.util.Requirements.requires;
+import static java.util.Arrays.asList;
 
-public class Join implements Function {
+public class Join implements RopeFunction {
     @Override
     public Object execute(Object... arguments) throws FunctionException {
+        return executeLazy(arguments).toString();
+    }
+
+    @Override
+    public CharSequence executeLazy(Object... arguments) throws FunctionException {
         requires(arguments)
                 .withNumberOfArguments(between(1, 2));
 
@@ -36,9 +44,18 @@ public class Join implements Function {
         if (arguments[0] == null)
             return "";
         else if (arguments[0] instanceof Iterable)
-            return StringUtils.join((Iterable) arguments[0], separator);
+            return join(((Iterable<?>) arguments[0]).iterator(), separator);
         else if (arguments[0].getClass().isArray())
-            return StringUtils.join((Object[]) arguments[0], separator);
+            return join(asList((Object[]) arguments[0]).iterator(), separator);
         else throw new FunctionException("First arguments must be a list or an array.");
     }
+
+    private Rope join(Iterator<?> iterator, String separator) {
+        Rope.Builder result = Rope.builder();
+        if (iterator.hasNext())
+            result.append(iterator.next());
+        while (iterator.hasNext())
+            result.append(separator).append(iterator.next());
+        return result.build();
+    }
 }
@@ -21,6 +21,8 @@ import com.lyncode.jtwig.functions.exceptions.FunctionException;
 
 import java.util.*;
 
+import static com.lyncode.jtwig.functions.util.ListViews.asList;
+import static com.lyncode.jtwig.functions.util.ListViews.concatenated;
 import static com.lyncode.jtwig.functions.util.Requirements.isArray;
 import static com.lyncode.jtwig.functions.util.Requirements.requires;
 import static org.hamcrest.Matchers.*;
@@ -41,15 +43,19 @@ public class Merge implements Function {
     }
 
     private Object mergeArray(Object... arguments) {
-        List<Object> result = new ArrayList<Object>();
+        int size = 0;
+        for (Object obj : arguments)
+            if (obj != null) size += ((Object[]) obj).length;
+
+        Object[] result = new Object[size];
+        int position = 0;
         for (Object obj : arguments) {
             if (obj == null) continue;
             Object[] list = (Object[]) obj;
-            for (Object value : list) {
-                result.add(value);
-            }
+            System.arraycopy(list, 0, result, position, list.length);
+            position += list.length;
         }
-        return result.toArray();
+        return result;
     }
 
     private Object mergeMap(Object... arguments) {
@@ -66,11 +72,11 @@ public class Merge implements Function {
     }
 
     private Object mergeList(Object... arguments) {
-        List<Object> result = new ArrayList<Object>();
+        List<List<Object>> lists = new ArrayList<List<Object>>();
         for (Object obj : arguments) {
             if (obj == null) continue;
-            result.addAll((List) obj);
+            lists.add(asList(obj));
         }
-        return result;
+        return concatenated(lists);
     }
 }
@@ -18,14 +18,16 @@ package com.lyncode.jtwig.functions.internal.list;
 
 import com.lyncode.jtwig.functions.Function;
 import com.lyncode.jtwig.functions.exceptions.FunctionException;
-import com.lyncode.jtwig.functions.util.ObjectIterator;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 import static com.lyncode.jtwig.functions.util.Requirements.isArray;
 import static com.lyncode.jtwig.functions.util.Requirements.requires;
+import static java.lang.Math.max;
 import static java.lang.Math.min;
+import static java.util.Arrays.copyOfRange;
 import static org.hamcrest.CoreMatchers.*;
 
 public class Slice implements Function {
@@ -46,20 +48,32 @@ public class Slice implements Function {
             return input.substring(begin, min(input.length(), begin + length));
         }
 
-        ObjectIterator iterator = new ObjectIterator(arguments[0]);
-        List list = new ArrayList();
-        int i = 0;
-        while (iterator.hasNext()) {
-            if (i >= begin && i < begin + length)
-                    list.add(iterator.next());
-            else
-                iterator.next();
-            i++;
+        if (arguments[0] instanceof Object[]) {
+            Object[] input = (Object[]) arguments[0];
+            int from = from(begin, input.length);
+            return copyOfRange(input, from, to(begin, length, from, input.length), Object[].class);
         }
 
-        if (arguments[0] instanceof Iterable)
-            return list;
-        else
-            return list.toArray();
+        if (arguments[0] instanceof List) {
+            List<?> input = (List<?>) arguments[0];
+            int from = from(begin, input.size());
+            return input.subList(from, to(begin, length, from, input.size()));
+        }
+
+        List<Object> list = new ArrayList<Object>();
+        Iterator<?> iterator = ((Iterable<?>) arguments[0]).iterator();
+        for (int i = 0; iterator.hasNext() && i < (long) begin + length; i++) {
+            Object item = iterator.next();
+            if (i >= begin) list.add(item);
+        }
+        return list;
+    }
+
+    private int from (int begin, int size) {
+        return min(size, max(0, begin));
+    }
+
+    private int to (int begin, int length, int from, int size) {
+        return (int) min(size, max(from, (long) begin + length));
     }
 }
@@ -0,0 +1,37 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.functions.internal.list;
+
+import com.lyncode.jtwig.functions.Function;
+import com.lyncode.jtwig.functions.exceptions.FunctionException;
+
+import static com.lyncode.jtwig.functions.util.ListViews.asList;
+import static com.lyncode.jtwig.functions.util.Requirements.requires;
+import static com.lyncode.jtwig.functions.util.Sorting.sortedBy;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+
+public class SortBy implements Function {
+    @Override
+    public Object execute(Object... arguments) throws FunctionException {
+        requires(arguments)
+                .withNumberOfArguments(equalTo(2))
+                .withArgument(1, instanceOf(String.class));
+
+        return sortedBy(asList(arguments[0]), (String) arguments[1]);
+    }
+}
@@ -19,9 +19,7 @@ package com.lyncode.jtwig.functions.internal.math;
 import com.lyncode.jtwig.functions.Function;
 import com.lyncode.jtwig.functions.exceptions.FunctionException;
 
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
-
+import static com.lyncode.jtwig.functions.util.Formatters.numberFormat;
 import static com.lyncode.jtwig.functions.util.Requirements.between;
 import static com.lyncode.jtwig.functions.util.Requirements.requires;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
@@ -33,32 +31,10 @@ public class JNumberFormat implements Function {
                 .withNumberOfArguments(between(1, 4))
                 .withArgument(1, instanceOf(Integer.class));
 
-        DecimalFormat numberFormat = new DecimalFormat();
-        DecimalFormatSymbols decimalFormatSymbols = numberFormat.getDecimalFormatSymbols();
-
-        if (arguments.length > 1) {
-            numberFormat.setMaximumFractionDigits((Integer) arguments[1]);
-            numberFormat.setMinimumFractionDigits((Integer) arguments[1]);
-        }
-
-        if (arguments.length > 2) {
-            String separator = arguments[2].toString();
-            if (!separator.isEmpty())
-                decimalFormatSymbols.setDecimalSeparator(separator.charAt(0));
-            else
-                decimalFormatSymbols.setDecimalSeparator('\0');
-        }
-
-        if (arguments.length > 3) {
-            String separator = arguments[3].toString();
-            if (!separator.isEmpty())
-                decimalFormatSymbols.setGroupingSeparator(separator.charAt(0));
-            else
-                decimalFormatSymbols.setGroupingSeparator('\0');
-        }
-
-        numberFormat.setDecimalFormatSymbols(decimalFormatSymbols);
+        Integer decimals = arguments.length > 1 ? (Integer) arguments[1] : null;
+        String decimalSeparator = arguments.length > 2 ? arguments[2].toString() : null;
+        String groupingSeparator = arguments.length > 3 ? arguments[3].toString() : null;
 
-        return numberFormat.format(arguments[0]);
+        return numberFormat(decimals, decimalSeparator, groupingSeparator).format(arguments[0]);
     }
 }
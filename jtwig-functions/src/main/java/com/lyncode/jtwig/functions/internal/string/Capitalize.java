@@ -16,13 +16,17 @@
 
 package com.lyncode.jtwig.functions.internal.string;
 
-import com.lyncode.jtwig.functions.Function;
+import com.lyncode.jtwig.functions.CharSink;
+import com.lyncode.jtwig.functions.FusibleFunction;
 import com.lyncode.jtwig.functions.exceptions.FunctionException;
+import com.lyncode.jtwig.functions.util.CharSinks;
+
+import java.io.IOException;
 
 import static com.lyncode.jtwig.functions.util.Requirements.requires;
 import static org.hamcrest.CoreMatchers.equalTo;
 
-public class Capitalize implements Function {
+public class Capitalize implements FusibleFunction {
     @Override
     public Object execute(Object... arguments) throws FunctionException {
         requires(arguments)
@@ -36,4 +40,27 @@ public class Capitalize implements Function {
         else
             return input;
     }
+
+    @Override
+    public boolean isAsciiOnly() {
+        return false;
+    }
+
+    @Override
+    public CharSink fuse(CharSink next, Object... arguments) throws FunctionException {
+        requires(arguments)
+                .withNumberOfArguments(equalTo(1));
+
+        return new CharSinks.Stage(next) {
+            private boolean first = true;
+
+            @Override
+            public void append(char character) throws IOException {
+                if (first) {
+                    first = false;
+                    append(String.valueOf(character).toUpperCase());
+                } else next.append(character);
+            }
+        };
+    }
 }
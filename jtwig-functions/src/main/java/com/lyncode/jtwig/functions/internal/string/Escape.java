@@ -16,19 +16,64 @@
 
 package com.lyncode.jtwig.functions.internal.string;
 
-import com.lyncode.jtwig.functions.Function;
+import com.lyncode.jtwig.functions.CharSink;
+import com.lyncode.jtwig.functions.FusibleFunction;
+import com.lyncode.jtwig.functions.SafeStringFunction;
+import com.lyncode.jtwig.functions.StreamingFunction;
 import com.lyncode.jtwig.functions.exceptions.FunctionException;
-import org.apache.commons.lang3.StringEscapeUtils;
+import com.lyncode.jtwig.functions.util.CharSinks;
+import com.lyncode.jtwig.functions.util.Escaper;
+import com.lyncode.jtwig.functions.util.SafeString;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
 
 import static com.lyncode.jtwig.functions.util.Requirements.between;
 import static com.lyncode.jtwig.functions.util.Requirements.requires;
-import static java.util.Arrays.asList;
 
-public class Escape implements Function {
+public class Escape implements StreamingFunction, FusibleFunction, SafeStringFunction {
     @Override
     public Object execute(Object... arguments) throws FunctionException {
+        EscapeStrategy strategy = strategy(arguments);
+        if (arguments[0] instanceof SafeString)
+            return arguments[0];
+        return new SafeString(strategy.getEscaper().escape(arguments[0].toString()));
+    }
+
+    @Override
+    public void execute(OutputStream outputStream, Object... arguments) throws FunctionException {
+        EscapeStrategy strategy = strategy(arguments);
+        try {
+            if (arguments[0] instanceof SafeString)
+                outputStream.write(arguments[0].toString().getBytes());
+            else
+                strategy.getEscaper().write(arguments[0].toString(), outputStream);
+        } catch (IOException e) {
+            throw new FunctionException(e);
+        }
+    }
+
+    @Override
+    public boolean isAsciiOnly() {
+        return false;
+    }
+
+    @Override
+    public CharSink fuse(CharSink next, Object... arguments) throws FunctionException {
+        final Escaper escaper = strategy(arguments).getEscaper();
+        return new CharSinks.Stage(next) {
+            @Override
+            public void append(char character) throws IOException {
+                String replacement = escaper.replacement(character);
+                if (replacement == null) next.append(character);
+                else append(replacement);
+            }
+        };
+    }
+
+    private EscapeStrategy strategy(Object... arguments) throws FunctionException {
         requires(arguments)
                 .withNumberOfArguments(between(1, 2));
 
@@ -36,36 +81,39 @@ public class Escape implements Function {
         if (arguments.length == 2)
             strategy = arguments[1].toString().toLowerCase();
 
-        switch (EscapeStrategy.strategyByName(strategy.toLowerCase())) {
-            case HTML:
-                return StringEscapeUtils.escapeHtml4(arguments[0].toString());
-            case JAVASCRIPT:
-                return StringEscapeUtils.escapeEcmaScript(arguments[0].toString());
-            case XML:
-                return StringEscapeUtils.escapeXml(arguments[0].toString());
-            default:
-                throw new FunctionException("Unknown escaping strategy");
-        }
-
+        EscapeStrategy escapeStrategy = EscapeStrategy.strategyByName(strategy);
+        if (escapeStrategy == null)
+            throw new FunctionException("Unknown escaping strategy");
+        return escapeStrategy;
     }
 
     public static enum EscapeStrategy {
-        HTML("html"),
-        JAVASCRIPT("js", "javascript"),
-        XML("xml");
+        HTML(Escaper.HTML, "html"),
+        JAVASCRIPT(Escaper.JAVASCRIPT, "js", "javascript"),
+        XML(Escaper.XML, "xml");
 
-        private List<String> representations;
+        private static final Map<String, EscapeStrategy> byName = new HashMap<String, EscapeStrategy>();
+        static {
+            for (EscapeStrategy escape : EscapeStrategy.values()) {
+                for (String representation : escape.representations)
+                    byName.put(representation, escape);
+            }
+        }
 
-        EscapeStrategy(String... representations) {
-            this.representations = asList(representations);
+        private final Escaper escaper;
+        private final String[] representations;
+
+        EscapeStrategy(Escaper escaper, String... representations) {
+            this.escaper = escaper;
+            this.representations = representations;
+        }
+
+        public Escaper getEscaper() {
+            return escaper;
         }
 
         public static EscapeStrategy strategyByName(String name) {
-            for (EscapeStrategy escape : EscapeStrategy.values()) {
-                if (escape.representations.contains(name))
-                    return escape;
-            }
-            return null;
+            return byName.get(name);
         }
     }
 }
@@ -19,6 +19,7 @@ package com.lyncode.jtwig.functions.internal.string;
 import com.lyncode.jtwig.functions.Function;
 import com.lyncode.jtwig.functions.exceptions.FunctionException;
 
+import static com.lyncode.jtwig.functions.util.Formatters.formatPattern;
 import static com.lyncode.jtwig.functions.util.Requirements.requires;
 import static java.util.Arrays.copyOfRange;
 import static org.hamcrest.Matchers.greaterThan;
@@ -31,6 +32,6 @@ public class Format implements Function {
 
         if (arguments[0] == null) return null;
         String input = arguments[0].toString();
-        return String.format(input, copyOfRange(arguments, 1, arguments.length));
+        return formatPattern(input).format(copyOfRange(arguments, 1, arguments.length));
     }
 }
@@ -16,13 +16,17 @@
 
 package com.lyncode.jtwig.functions.internal.string;
 
-import com.lyncode.jtwig.functions.Function;
+import com.lyncode.jtwig.functions.CharSink;
+import com.lyncode.jtwig.functions.FusibleFunction;
 import com.lyncode.jtwig.functions.exceptions.FunctionException;
+import com.lyncode.jtwig.functions.util.CharSinks;
+
+import java.io.IOException;
 
 import static com.lyncode.jtwig.functions.util.Requirements.requires;
 import static org.hamcrest.CoreMatchers.equalTo;
 
-public class Nl2Br implements Function {
+public class Nl2Br implements FusibleFunction {
     @Override
     public Object execute(Object... arguments) throws FunctionException {
         requires(arguments)
@@ -32,4 +36,23 @@ public class Nl2Br implements Function {
             return null;
         return arguments[0].toString().replace("\n", "<br />");
     }
+
+    @Override
+    public boolean isAsciiOnly() {
+        return false;
+    }
+
+    @Override
+    public CharSink fuse(CharSink next, Object... arguments) throws FunctionException {
+        requires(arguments)
+                .withNumberOfArguments(equalTo(1));
+
+        return new CharSinks.Stage(next) {
+            @Override
+            public void append(char character) throws IOException {
+                if (character == '\n') append("<br />");
+                else next.append(character);
+            }
+        };
+    }
 }
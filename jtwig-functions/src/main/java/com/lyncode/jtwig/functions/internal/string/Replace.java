@@ -16,8 +16,12 @@
 
 package com.lyncode.jtwig.functions.internal.string;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.lyncode.jtwig.functions.Function;
 import com.lyncode.jtwig.functions.exceptions.FunctionException;
+import com.lyncode.jtwig.functions.util.LiteralMap;
+import com.lyncode.jtwig.functions.util.MultiReplacer;
 
 import java.util.Map;
 
@@ -26,6 +30,12 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
 
 public class Replace implements Function {
+    private static final int MAX_CACHED = 256;
+
+    private final Cache<LiteralMap, MultiReplacer> replacers = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED)
+            .build();
+
     @Override
     public Object execute(Object... arguments) throws FunctionException {
         requires(arguments)
@@ -34,10 +44,18 @@ public class Replace implements Function {
 
         if (arguments[0] == null) return null;
         String input = arguments[0].toString();
-        Map<String, Object> replacements = (Map<String, Object>) arguments[1];
-        for (String key : replacements.keySet())
-            if (replacements.get(key) != null)
-                input = input.replace(key, replacements.get(key).toString());
-        return input;
+        return replacer((Map<?, ?>) arguments[1]).replace(input);
+    }
+
+    private MultiReplacer replacer(Map<?, ?> replacements) {
+        if (!(replacements instanceof LiteralMap))
+            return new MultiReplacer(replacements);
+
+        MultiReplacer replacer = replacers.getIfPresent(replacements);
+        if (replacer == null) {
+            replacer = new MultiReplacer(replacements);
+            replacers.put((LiteralMap) replacements, replacer);
+        }
+        return replacer;
     }
 }
@@ -16,14 +16,18 @@
 
 package com.lyncode.jtwig.functions.internal.string;
 
-import com.lyncode.jtwig.functions.Function;
+import com.lyncode.jtwig.functions.CharSink;
+import com.lyncode.jtwig.functions.FusibleFunction;
 import com.lyncode.jtwig.functions.exceptions.FunctionException;
+import com.lyncode.jtwig.functions.util.CharSinks;
 import org.apache.commons.lang3.text.WordUtils;
 
+import java.io.IOException;
+
 import static com.lyncode.jtwig.functions.util.Requirements.requires;
 import static org.hamcrest.CoreMatchers.equalTo;
 
-public class Title implements Function {
+public class Title implements FusibleFunction {
     @Override
     public Object execute(Object... arguments) throws FunctionException {
         requires(arguments)
@@ -33,4 +37,31 @@ public class Title implements Function {
             return null;
         return WordUtils.capitalize((String) arguments[0]);
     }
+
+    @Override
+    public boolean isAsciiOnly() {
+        return false;
+    }
+
+    @Override
+    public CharSink fuse(CharSink next, Object... arguments) throws FunctionException {
+        requires(arguments)
+                .withNumberOfArguments(equalTo(1));
+
+        // same rules as WordUtils.capitalize
+        return new CharSinks.Stage(next) {
+            private boolean capitalizeNext = true;
+
+            @Override
+            public void append(char character) throws IOException {
+                if (Character.isWhitespace(character)) {
+                    capitalizeNext = true;
+                    next.append(character);
+                } else if (capitalizeNext) {
+                    capitalizeNext = false;
+                    next.append(Character.toTitleCase(character));
+                } else next.append(character);
+            }
+        };
+    }
 }
@@ -16,13 +16,17 @@
 
 package com.lyncode.jtwig.functions.internal.string;
 
-import com.lyncode.jtwig.functions.Function;
+import com.lyncode.jtwig.functions.CharSink;
+import com.lyncode.jtwig.functions.FusibleFunction;
 import com.lyncode.jtwig.functions.exceptions.FunctionException;
+import com.lyncode.jtwig.functions.util.CharSinks;
+
+import java.io.IOException;
 
 import static com.lyncode.jtwig.functions.util.Requirements.requires;
 import static org.hamcrest.CoreMatchers.equalTo;
 
-public class Trim implements Function {
+public class Trim implements FusibleFunction {
     @Override
     public Object execute(Object... arguments) throws FunctionException {
         requires(arguments)
@@ -32,4 +36,36 @@ public class Trim implements Function {
             return null;
         return arguments[0].toString().trim();
     }
+
+    @Override
+    public boolean isAsciiOnly() {
+        return false;
+    }
+
+    @Override
+    public CharSink fuse(CharSink next, Object... arguments) throws FunctionException {
+        requires(arguments)
+                .withNumberOfArguments(equalTo(1));
+
+        // same rules as String.trim, trailing blanks are held back until
+        // something else follows them
+        return new CharSinks.Stage(next) {
+            private boolean started = false;
+            private StringBuilder blanks = new StringBuilder();
+
+            @Override
+            public void append(char character) throws IOException {
+                if (character <= ' ') {
+                    if (started) blanks.append(character);
+                    return;
+                }
+                started = true;
+                if (blanks.length() > 0) {
+                    append(blanks.toString());
+                    blanks.setLength(0);
+                }
+                next.append(character);
+            }
+        };
+    }
 }
@@ -16,13 +16,17 @@
 
 package com.lyncode.jtwig.functions.internal.string;
 
-import com.lyncode.jtwig.functions.Function;
+import com.lyncode.jtwig.functions.CharSink;
+import com.lyncode.jtwig.functions.FusibleFunction;
 import com.lyncode.jtwig.functions.exceptions.FunctionException;
+import com.lyncode.jtwig.functions.util.CharSinks;
+
+import java.io.IOException;
 
 import static com.lyncode.jtwig.functions.util.Requirements.requires;
 import static org.hamcrest.CoreMatchers.equalTo;
 
-public class Upper implements Function {
+public class Upper implements FusibleFunction {
     @Override
     public Object execute(Object... arguments) throws FunctionException {
         requires(arguments)
@@ -32,4 +36,23 @@ public class Upper implements Function {
             return null;
         return arguments[0].toString().toUpperCase();
     }
+
+    @Override
+    public boolean isAsciiOnly() {
+        return true;
+    }
+
+    @Override
+    public CharSink fuse(CharSink next, Object... arguments) throws FunctionException {
+        requires(arguments)
+                .withNumberOfArguments(equalTo(1));
+
+        if (!CharSinks.hasAsciiCaseMapping()) return null;
+        return new CharSinks.Stage(next) {
+            @Override
+            public void append(char character) throws IOException {
+                next.append(Character.toUpperCase(character));
+            }
+        };
+    }
 }
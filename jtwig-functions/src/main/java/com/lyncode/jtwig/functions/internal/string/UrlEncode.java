@@ -16,10 +16,13 @@
 
 package com.lyncode.jtwig.functions.internal.string;
 
-import com.lyncode.jtwig.functions.Function;
+import com.lyncode.jtwig.functions.CharSink;
+import com.lyncode.jtwig.functions.FusibleFunction;
 import com.lyncode.jtwig.functions.exceptions.FunctionException;
+import com.lyncode.jtwig.functions.util.CharSinks;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.charset.Charset;
@@ -30,7 +33,9 @@ import java.util.Map;
 import static com.lyncode.jtwig.functions.util.Requirements.requires;
 import static org.hamcrest.CoreMatchers.equalTo;
 
-public class UrlEncode implements Function {
+public class UrlEncode implements FusibleFunction {
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
     @Override
     public Object execute(Object... arguments) throws FunctionException {
         requires(arguments)
@@ -62,4 +67,34 @@ public class UrlEncode implements Function {
             throw new FunctionException(e);
         }
     }
+
+    @Override
+    public boolean isAsciiOnly() {
+        return true;
+    }
+
+    @Override
+    public CharSink fuse(CharSink next, Object... arguments) throws FunctionException {
+        requires(arguments)
+                .withNumberOfArguments(equalTo(1));
+
+        if (!CharSinks.isAsciiCompatible()) return null;
+        // same rules as URLEncoder for ASCII input
+        return new CharSinks.Stage(next) {
+            @Override
+            public void append(char character) throws IOException {
+                if ((character >= 'a' && character <= 'z') || (character >= 'A' && character <= 'Z')
+                        || (character >= '0' && character <= '9')
+                        || character == '.' || character == '-' || character == '*' || character == '_')
+                    next.append(character);
+                else if (character == ' ')
+                    next.append('+');
+                else {
+                    next.append('%');
+                    next.append(HEX[(character >> 4) & 0xF]);
+                    next.append(HEX[character & 0xF]);
+                }
+            }
+        };
+    }
 }
@@ -30,71 +30,150 @@ import com.lyncode.jtwig.functions.internal.math.JNumberFormat;
 import com.lyncode.jtwig.functions.internal.math.Round;
 import com.lyncode.jtwig.functions.internal.string.*;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
+import static com.lyncode.jtwig.functions.repository.FunctionDeclaration.Scope.GLOBAL;
+
+/**
+ * Function lookup on top of the built-in functions, which are shared by every
+ * repository and only instantiated when first retrieved. Added functions are
+ * published copy-on-write, so retrieving never locks.
+ */
 public abstract class AbstractFunctionRepository {
-    private Map<String, Function> functionMap = new HashMap<String, Function>();
+    private static final Map<String, FunctionDeclaration> BUILT_IN = declarations(
+            // List functions
+            new FunctionDeclaration(Concatenate.class, "concat", "concatenate"),
+            new FunctionDeclaration(Join.class, "join"),
+            new FunctionDeclaration(Batch.class, "batch"),
+            new FunctionDeclaration(Merge.class, "merge"),
+            new FunctionDeclaration(Slice.class, "slice"),
+            new FunctionDeclaration(Sort.class, "sort"),
+            new FunctionDeclaration(SortBy.class, "sort_by"),
+            new FunctionDeclaration(GroupBy.class, "group_by"),
+            new FunctionDeclaration(Unique.class, "unique"),
+            new FunctionDeclaration(MapKeys.class, "keys"),
+
+            // String function
+            new FunctionDeclaration(Upper.class, "upper"),
+            new FunctionDeclaration(Lower.class, "lower"),
+            new FunctionDeclaration(StripTags.class, "striptags").pure(GLOBAL),
+            new FunctionDeclaration(Trim.class, "trim"),
+            new FunctionDeclaration(Split.class, "split"),
+            new FunctionDeclaration(Capitalize.class, "capitalize"),
+            new FunctionDeclaration(Title.class, "title"),
+            new FunctionDeclaration(Replace.class, "replace").pure(GLOBAL),
+            new FunctionDeclaration(Format.class, "format").pure(GLOBAL),
+            new FunctionDeclaration(Nl2Br.class, "nl2br").pure(GLOBAL),
+            new FunctionDeclaration(UrlEncode.class, "url_encode").pure(GLOBAL),
+            new FunctionDeclaration(Escape.class, "escape", "e").pure(GLOBAL),
+            new FunctionDeclaration(Raw.class, "raw"),
+
+            // Date Functions
+            new FunctionDeclaration(DateModify.class, "date_modify"),
+            new FunctionDeclaration(DateFormat.class, "date", "date_format"),
+            new FunctionDeclaration(ConvertEncoding.class, "convert_encoding"),
+
+            // Math functions
+            new FunctionDeclaration(Abs.class, "abs"),
+            new FunctionDeclaration(JNumberFormat.class, "number_format").pure(GLOBAL),
+            new FunctionDeclaration(Round.class, "round"),
+
+            // Cast functions
+            new FunctionDeclaration(ToDouble.class, "toDouble", "toFloat"),
+            new FunctionDeclaration(ToInt.class, "toInt"),
+
+            // Generic functions
+            new FunctionDeclaration(Length.class, "length"),
+            new FunctionDeclaration(Default.class, "default"),
+            new FunctionDeclaration(First.class, "first"),
+            new FunctionDeclaration(Last.class, "last"),
+            new FunctionDeclaration(JsonEncode.class, "json_encode"),
+            new FunctionDeclaration(Reverse.class, "reverse")
+    );
+    private static final Set<Class<? extends Function>> BUILT_IN_TYPES = types(BUILT_IN.values());
+
+    /**
+     * Whether the function is a built-in one, these never modify their arguments.
+     */
+    public static boolean isBuiltIn (Function function) {
+        return BUILT_IN_TYPES.contains(function.getClass());
+    }
+
+    private volatile Map<String, FunctionDeclaration> functionMap = Collections.emptyMap();
+    private final FunctionResultCache resultCache = new FunctionResultCache();
 
     public AbstractFunctionRepository(FunctionDeclaration... functions) {
-        addFunctions(
-                // List functions
-                new FunctionDeclaration(new Concatenate(), "concat", "concatenate"),
-                new FunctionDeclaration(new Join(), "join"),
-                new FunctionDeclaration(new Batch(), "batch"),
-                new FunctionDeclaration(new Merge(), "merge"),
-                new FunctionDeclaration(new Slice(), "slice"),
-                new FunctionDeclaration(new MapKeys(), "keys"),
-
-                // String function
-                new FunctionDeclaration(new Upper(), "upper"),
-                new FunctionDeclaration(new Lower(), "lower"),
-                new FunctionDeclaration(new StripTags(), "striptags"),
-                new FunctionDeclaration(new Trim(), "trim"),
-                new FunctionDeclaration(new Split(), "split"),
-                new FunctionDeclaration(new Capitalize(), "capitalize"),
-                new FunctionDeclaration(new Title(), "title"),
-                new FunctionDeclaration(new Replace(), "replace"),
-                new FunctionDeclaration(new Format(), "format"),
-                new FunctionDeclaration(new Nl2Br(), "nl2br"),
-                new FunctionDeclaration(new UrlEncode(), "url_encode"),
-                new FunctionDeclaration(new Escape(), "escape", "e"),
-
-                // Date Functions
-                new FunctionDeclaration(new DateModify(), "date_modify"),
-                new FunctionDeclaration(new DateFormat(), "date", "date_format"),
-                new FunctionDeclaration(new ConvertEncoding(), "convert_encoding"),
-
-                // Math functions
-                new FunctionDeclaration(new Abs(), "abs"),
-                new FunctionDeclaration(new JNumberFormat(), "number_format"),
-                new FunctionDeclaration(new Round(), "round"),
-
-                // Cast functions
-                new FunctionDeclaration(new ToDouble(), "toDouble", "toFloat"),
-                new FunctionDeclaration(new ToInt(), "toInt"),
-
-                // Generic functions
-                new FunctionDeclaration(new Length(), "length"),
-                new FunctionDeclaration(new Default(), "default"),
-                new FunctionDeclaration(new First(), "first"),
-                new FunctionDeclaration(new Last(), "last"),
-                new FunctionDeclaration(new JsonEncode(), "json_encode"),
-                new FunctionDeclaration(new Reverse(), "reverse")
-        );
-        addFunctions(functions);
+        put(functions);
     }
 
     public void addFunctions(FunctionDeclaration... functions) {
+        put(functions);
+    }
+
+    public Function retrieve (String functionName) throws FunctionNotFoundException {
+        return declaration(functionName).getFunction();
+    }
+
+    /**
+     * The scope in which results of the function can be reused (see
+     * {@link FunctionDeclaration#pure(FunctionDeclaration.Scope)}), null if
+     * it isn't pure.
+     */
+    public FunctionDeclaration.Scope scope (String functionName) throws FunctionNotFoundException {
+        return declaration(functionName).getScope();
+    }
+
+    /**
+     * The functions declared on this repository, built-in ones excluded.
+     */
+    public Collection<Function> getFunctions() {
+        Set<Function> result = new LinkedHashSet<Function>();
+        for (FunctionDeclaration declaration : functionMap.values())
+            result.add(declaration.getFunction());
+        return result;
+    }
+
+    /**
+     * Results of pure functions in the global and locale scopes.
+     */
+    public FunctionResultCache getResultCache() {
+        return resultCache;
+    }
+
+    private FunctionDeclaration declaration (String functionName) throws FunctionNotFoundException {
+        FunctionDeclaration declaration = functionMap.get(functionName);
+        if (declaration == null) declaration = BUILT_IN.get(functionName);
+        if (declaration == null) throw new FunctionNotFoundException();
+        return declaration;
+    }
+
+    private synchronized void put(FunctionDeclaration... functions) {
+        if (functions.length == 0) return;
+        Map<String, FunctionDeclaration> result = new HashMap<String, FunctionDeclaration>(functionMap);
+        result.putAll(declarations(functions));
+        functionMap = result;
+    }
+
+    private static Set<Class<? extends Function>> types(Collection<FunctionDeclaration> declarations) {
+        Set<Class<? extends Function>> result = new HashSet<Class<? extends Function>>();
+        for (FunctionDeclaration declaration : declarations)
+            result.add(declaration.getType());
+        return Collections.unmodifiableSet(result);
+    }
+
+    private static Map<String, FunctionDeclaration> declarations(FunctionDeclaration... functions) {
+        Map<String, FunctionDeclaration> result = new HashMap<String, FunctionDeclaration>();
         for (FunctionDeclaration declaration : functions) {
             for (String alias : declaration.getAliases()) {
-                functionMap.put(alias, declaration.getFunction());
+                result.put(alias, declaration);
             }
         }
-    }
-
-    public Function retrieve (String functionName) throws FunctionNotFoundException {
-        if (!functionMap.containsKey(functionName)) throw new FunctionNotFoundException();
-        return functionMap.get(functionName);
+        return Collections.unmodifiableMap(result);
     }
 }
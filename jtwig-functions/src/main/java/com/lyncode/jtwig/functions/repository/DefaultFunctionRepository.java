@@ -17,6 +17,20 @@
 package com.lyncode.jtwig.functions.repository;
 
 public class DefaultFunctionRepository extends AbstractFunctionRepository {
+    private static final DefaultFunctionRepository INSTANCE = new DefaultFunctionRepository() {
+        @Override
+        public void addFunctions(FunctionDeclaration... functions) {
+            throw new UnsupportedOperationException("The shared default function repository can't be changed");
+        }
+    };
+
+    /**
+     * The process wide repository with just the built-in functions.
+     */
+    public static DefaultFunctionRepository defaultFunctionRepository() {
+        return INSTANCE;
+    }
+
     public DefaultFunctionRepository(FunctionDeclaration... functions) {
         super(functions);
     }
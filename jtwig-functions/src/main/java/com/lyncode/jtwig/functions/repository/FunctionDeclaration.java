@@ -24,21 +24,82 @@ import java.util.List;
 import static java.util.Arrays.asList;
 
 public class FunctionDeclaration {
+    /**
+     * How long the result of a pure function, called with the same arguments,
+     * stays valid.
+     */
+    public enum Scope {
+        GLOBAL,
+        LOCALE,
+        REQUEST
+    }
+
     private List<String> aliases;
-    private Function function;
+    private volatile Function function;
+    private Class<? extends Function> type;
+    private Scope scope;
 
     public FunctionDeclaration (Function function, String name, String... aliases) {
+        this(name, aliases);
         this.function = function;
+    }
+
+    /**
+     * Declares a function only instantiated (through its no-arg constructor)
+     * the first time it is needed.
+     */
+    public FunctionDeclaration (Class<? extends Function> type, String name, String... aliases) {
+        this(name, aliases);
+        this.type = type;
+    }
+
+    private FunctionDeclaration (String name, String... aliases) {
         this.aliases = new ArrayList<String>();
         this.aliases.add(name);
         this.aliases.addAll(asList(aliases));
     }
 
+    /**
+     * Declares the function as pure, given the same arguments it always
+     * returns the same result within the given scope.
+     */
+    public FunctionDeclaration pure(Scope scope) {
+        this.scope = scope;
+        return this;
+    }
+
+    Class<? extends Function> getType() {
+        return type;
+    }
+
     public List<String> getAliases() {
         return aliases;
     }
 
+    /**
+     * The scope in which results can be reused, null if the function isn't pure.
+     */
+    public Scope getScope() {
+        return scope;
+    }
+
     public Function getFunction() {
-        return function;
+        Function result = function;
+        if (result == null) {
+            synchronized (this) {
+                result = function;
+                if (result == null) {
+                    try {
+                        result = type.newInstance();
+                    } catch (InstantiationException e) {
+                        throw new IllegalStateException("Unable to instantiate " + type.getName(), e);
+                    } catch (IllegalAccessException e) {
+                        throw new IllegalStateException("Unable to instantiate " + type.getName(), e);
+                    }
+                    function = result;
+                }
+            }
+        }
+        return result;
     }
 }
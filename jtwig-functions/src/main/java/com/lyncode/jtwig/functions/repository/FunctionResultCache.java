@@ -0,0 +1,79 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.functions.repository;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+/**
+ * Bounded (least recently used) cache of pure function results, keeping
+ * track of its hit rate. Safe to share between rendering threads.
+ */
+public class FunctionResultCache {
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private final Cache<Object, Object> results;
+
+    public FunctionResultCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public FunctionResultCache(int maxSize) {
+        this.results = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * The cached result for the given key, null (counted as a miss) if none.
+     */
+    public Object get(Object key) {
+        return results.getIfPresent(key);
+    }
+
+    public void put(Object key, Object value) {
+        if (value == null) return;
+        results.put(key, value);
+    }
+
+    public int size() {
+        return (int) results.size();
+    }
+
+    public CacheStats stats() {
+        return results.stats();
+    }
+
+    public long getHitCount() {
+        return stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return stats().missCount();
+    }
+
+    public double getHitRate() {
+        CacheStats stats = stats();
+        return stats.requestCount() == 0 ? 0 : stats.hitRate();
+    }
+
+    public void clear() {
+        results.invalidateAll();
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.functions.util;
+
+import com.lyncode.jtwig.functions.CharSink;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.Locale;
+
+public class CharSinks {
+    private static final int BUFFER_SIZE = 1024;
+    private static final boolean ASCII_COMPATIBLE = isAsciiCompatible(Charset.defaultCharset());
+
+    public static CharSink to (final StringBuilder builder) {
+        return new CharSink() {
+            @Override
+            public void append(char character) {
+                builder.append(character);
+            }
+
+            @Override
+            public void end() {}
+        };
+    }
+
+    /**
+     * Encodes with the platform default charset, as the rest of the
+     * rendering does.
+     */
+    public static CharSink to (OutputStream outputStream) {
+        return new OutputSink(outputStream);
+    }
+
+    public static void write (CharSequence input, CharSink sink) throws IOException {
+        for (int i = 0; i < input.length(); i++)
+            sink.append(input.charAt(i));
+        sink.end();
+    }
+
+    public static boolean isAscii (CharSequence input) {
+        for (int i = 0; i < input.length(); i++)
+            if (input.charAt(i) >= 0x80) return false;
+        return true;
+    }
+
+    public static boolean isAsciiCompatible () {
+        return ASCII_COMPATIBLE;
+    }
+
+    private static boolean isAsciiCompatible (Charset charset) {
+        String sample = " +%-.*_&;#<>/0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+        byte[] bytes = sample.getBytes(charset);
+        if (bytes.length != sample.length()) return false;
+        for (int i = 0; i < bytes.length; i++)
+            if (bytes[i] != sample.charAt(i)) return false;
+        return true;
+    }
+
+    /**
+     * Whether per character case conversion of ASCII matches the String one
+     * in the default locale (it doesn't for dotted/dotless i locales).
+     */
+    public static boolean hasAsciiCaseMapping () {
+        String language = Locale.getDefault().getLanguage();
+        return !"tr".equals(language) && !"az".equals(language);
+    }
+
+    /**
+     * A transformation stage, passing its output on to the next sink.
+     */
+    public abstract static class Stage implements CharSink {
+        protected final CharSink next;
+
+        protected Stage(CharSink next) {
+            this.next = next;
+        }
+
+        protected void append (String value) throws IOException {
+            for (int i = 0; i < value.length(); i++)
+                next.append(value.charAt(i));
+        }
+
+        @Override
+        public void end() throws IOException {
+            next.end();
+        }
+    }
+
+    private static class OutputSink implements CharSink {
+        private final OutputStream outputStream;
+        private final char[] chars = new char[BUFFER_SIZE];
+        private final byte[] bytes = new byte[BUFFER_SIZE];
+        private int size = 0;
+        private boolean ascii = true;
+
+        private OutputSink(OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        @Override
+        public void append(char character) throws IOException {
+            if (size == chars.length) {
+                // keep surrogate pairs in the same chunk
+                if (Character.isHighSurrogate(chars[size - 1])) {
+                    flush(size - 1);
+                    chars[0] = chars[BUFFER_SIZE - 1];
+                    size = 1;
+                    ascii = false;
+                } else flush(size);
+            }
+            if (character >= 0x80) ascii = false;
+            chars[size++] = character;
+        }
+
+        @Override
+        public void end() throws IOException {
+            flush(size);
+        }
+
+        private void flush (int length) throws IOException {
+            if (ascii && ASCII_COMPATIBLE) {
+                for (int i = 0; i < length; i++)
+                    bytes[i] = (byte) chars[i];
+                outputStream.write(bytes, 0, length);
+            } else if (length > 0) {
+                outputStream.write(new String(chars, 0, length).getBytes());
+            }
+            size = 0;
+            ascii = true;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.functions.util;
+
+import org.apache.commons.lang3.text.translate.EntityArrays;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Table driven escaper. Every character below the table size has its
+ * replacement precomputed (both as text and as bytes), so escaping is a
+ * single scan over the input. Inputs that need no escaping are returned
+ * (or written) untouched, without building a new String.
+ */
+public class Escaper {
+    public static final Escaper HTML = new Escaper(-1,
+            EntityArrays.BASIC_ESCAPE(),
+            EntityArrays.ISO8859_1_ESCAPE(),
+            EntityArrays.HTML40_EXTENDED_ESCAPE());
+
+    public static final Escaper XML = new Escaper(-1,
+            EntityArrays.BASIC_ESCAPE(),
+            EntityArrays.APOS_ESCAPE());
+
+    public static final Escaper JAVASCRIPT = new Escaper(0x7f,
+            new String[][] {
+                    {"'", "\\'"},
+                    {"\"", "\\\""},
+                    {"\\", "\\\\"},
+                    {"/", "\\/"}
+            },
+            unicodeEscapes(0, 32),
+            EntityArrays.JAVA_CTRL_CHARS_ESCAPE());
+
+    private static final int BUFFER_SIZE = 1024;
+    private static final boolean ASCII_COMPATIBLE = isAsciiCompatible(Charset.defaultCharset());
+    private static final ThreadLocal<byte[]> BUFFER = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[BUFFER_SIZE];
+        }
+    };
+
+    private final String[] replacements;
+    private final byte[][] replacementBytes;
+    private final int unicodeAbove;
+
+    /**
+     * @param unicodeAbove characters above this value (not covered by the
+     *                     lookup tables) are written as \\uXXXX escapes,
+     *                     -1 to leave them untouched
+     * @param lookups      pairs of (character, replacement), later lookups
+     *                     take precedence over earlier ones
+     */
+    private Escaper(int unicodeAbove, String[][]... lookups) {
+        int size = 0;
+        for (String[][] lookup : lookups)
+            for (String[] pair : lookup)
+                size = Math.max(size, pair[0].charAt(0) + 1);
+
+        this.unicodeAbove = unicodeAbove < 0 ? Character.MAX_VALUE : unicodeAbove;
+        this.replacements = new String[size];
+        this.replacementBytes = new byte[size][];
+        for (String[][] lookup : lookups) {
+            for (String[] pair : lookup) {
+                char character = pair[0].charAt(0);
+                replacements[character] = pair[1];
+                replacementBytes[character] = ascii(pair[1]);
+            }
+        }
+    }
+
+    public String escape(String input) {
+        int start = firstToEscape(input);
+        if (start == -1) return input;
+
+        StringBuilder builder = new StringBuilder(input.length() + 16);
+        builder.append(input, 0, start);
+        for (int i = start; i < input.length(); i++) {
+            char character = input.charAt(i);
+            if (character < replacements.length && replacements[character] != null)
+                builder.append(replacements[character]);
+            else if (character > unicodeAbove)
+                builder.append(unicodeEscape(character));
+            else
+                builder.append(character);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Writes the escaped input straight to the given stream, using the
+     * platform default charset (as the rest of the rendering does).
+     */
+    public void write(String input, OutputStream outputStream) throws IOException {
+        int start = firstToEscape(input);
+        if (start == -1) {
+            outputStream.write(input.getBytes());
+            return;
+        }
+        if (!ASCII_COMPATIBLE) {
+            outputStream.write(escape(input).getBytes());
+            return;
+        }
+
+        byte[] buffer = BUFFER.get();
+        int position = 0;
+        int i = 0;
+        while (i < input.length()) {
+            char character = input.charAt(i);
+            byte[] replacement = null;
+            if (character < replacementBytes.length)
+                replacement = replacementBytes[character];
+            if (replacement == null && character > unicodeAbove)
+                replacement = ascii(unicodeEscape(character));
+
+            if (replacement != null) {
+                if (position + replacement.length > buffer.length) {
+                    outputStream.write(buffer, 0, position);
+                    position = 0;
+                }
+                System.arraycopy(replacement, 0, buffer, position, replacement.length);
+                position += replacement.length;
+                i++;
+            } else if (character < 0x80) {
+                if (position == buffer.length) {
+                    outputStream.write(buffer, 0, position);
+                    position = 0;
+                }
+                buffer[position++] = (byte) character;
+                i++;
+            } else {
+                // Non ASCII run, let the charset encode it
+                int end = i + 1;
+                while (end < input.length() && input.charAt(end) >= 0x80 && !needsEscape(input.charAt(end)))
+                    end++;
+                outputStream.write(buffer, 0, position);
+                position = 0;
+                outputStream.write(input.substring(i, end).getBytes());
+                i = end;
+            }
+        }
+        outputStream.write(buffer, 0, position);
+    }
+
+    /**
+     * The replacement of the given character, or null if it is kept as is.
+     */
+    public String replacement(char character) {
+        if (character < replacements.length && replacements[character] != null)
+            return replacements[character];
+        if (character > unicodeAbove)
+            return unicodeEscape(character);
+        return null;
+    }
+
+    private int firstToEscape(String input) {
+        for (int i = 0; i < input.length(); i++) {
+            if (needsEscape(input.charAt(i)))
+                return i;
+        }
+        return -1;
+    }
+
+    private boolean needsEscape(char character) {
+        return (character < replacements.length && replacements[character] != null) || character > unicodeAbove;
+    }
+
+    private static String unicodeEscape(char character) {
+        String hex = Integer.toHexString(character).toUpperCase();
+        return "\\u0000".substring(0, 6 - hex.length()) + hex;
+    }
+
+    private static String[][] unicodeEscapes(int start, int end) {
+        String[][] result = new String[end - start][];
+        for (int i = start; i < end; i++)
+            result[i - start] = new String[]{String.valueOf((char) i), unicodeEscape((char) i)};
+        return result;
+    }
+
+    private static byte[] ascii(String value) {
+        byte[] bytes = new byte[value.length()];
+        for (int i = 0; i < value.length(); i++)
+            bytes[i] = (byte) value.charAt(i);
+        return bytes;
+    }
+
+    private static boolean isAsciiCompatible(Charset charset) {
+        String sample = "&<>\"'\\/;#0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+        try {
+            return Arrays.equals(ascii(sample), sample.getBytes(charset.name()));
+        } catch (UnsupportedEncodingException e) {
+            return false;
+        }
+    }
+}
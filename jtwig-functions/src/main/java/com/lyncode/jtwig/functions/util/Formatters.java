@@ -0,0 +1,181 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.functions.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.text.DateFormat;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Formattable;
+import java.util.Formatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Registry of formatters shared by the formatting functions. Date and number
+ * formats are mutable, so each thread keeps its own bounded set of them;
+ * parsed format patterns are immutable and shared between threads.
+ * <p>
+ * Numbers and format patterns don't depend on the default locale, as the
+ * results of number_format and format are reused across locales.
+ */
+public class Formatters {
+    private static final int MAX_PER_THREAD = 64;
+    private static final int MAX_PATTERNS = 256;
+
+    private static final ThreadLocal<Map<String, Object>> FORMATS = new ThreadLocal<Map<String, Object>>() {
+        @Override
+        protected Map<String, Object> initialValue() {
+            return new LinkedHashMap<String, Object>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+                    return size() > MAX_PER_THREAD;
+                }
+            };
+        }
+    };
+
+    private static final Cache<String, FormatPattern> PATTERNS = CacheBuilder.newBuilder()
+            .maximumSize(MAX_PATTERNS)
+            .build();
+
+    public static DateFormat dateFormat (String pattern) {
+        Locale locale = Locale.getDefault();
+        String key = "d|" + locale + "|" + pattern;
+        Map<String, Object> formats = FORMATS.get();
+        DateFormat format = (DateFormat) formats.get(key);
+        if (format == null) {
+            format = new SimpleDateFormat(pattern, locale);
+            formats.put(key, format);
+        }
+        return format;
+    }
+
+    public static DecimalFormat numberFormat (Integer decimals, String decimalSeparator, String groupingSeparator) {
+        String key = "n|" + decimals + "|" + decimalSeparator + "|" + groupingSeparator;
+        Map<String, Object> formats = FORMATS.get();
+        DecimalFormat format = (DecimalFormat) formats.get(key);
+        if (format == null) {
+            format = new DecimalFormat("#,##0.###", DecimalFormatSymbols.getInstance(Locale.ROOT));
+            DecimalFormatSymbols symbols = format.getDecimalFormatSymbols();
+            if (decimals != null) {
+                format.setMaximumFractionDigits(decimals);
+                format.setMinimumFractionDigits(decimals);
+            }
+            if (decimalSeparator != null)
+                symbols.setDecimalSeparator(decimalSeparator.isEmpty() ? '\0' : decimalSeparator.charAt(0));
+            if (groupingSeparator != null)
+                symbols.setGroupingSeparator(groupingSeparator.isEmpty() ? '\0' : groupingSeparator.charAt(0));
+            format.setDecimalFormatSymbols(symbols);
+            formats.put(key, format);
+        }
+        return format;
+    }
+
+    public static FormatPattern formatPattern (String pattern) {
+        FormatPattern formatPattern = PATTERNS.getIfPresent(pattern);
+        if (formatPattern == null) {
+            formatPattern = new FormatPattern(pattern);
+            PATTERNS.put(pattern, formatPattern);
+        }
+        return formatPattern;
+    }
+
+    /**
+     * A printf style pattern split once into literal text and conversions.
+     * Plain %s conversions are appended directly, the remaining ones go
+     * through {@link Formatter} one at a time. Patterns using explicit or
+     * relative argument indexes are handed to {@link String#format}.
+     */
+    public static class FormatPattern {
+        private static final Pattern SPECIFIER = Pattern.compile("%(\\d+\\$)?([-#+ 0,(<]*)?(\\d+)?(\\.\\d+)?([tT])?([a-zA-Z%])");
+
+        private final String pattern;
+        private final List<String> segments = new ArrayList<String>();
+        private final List<Boolean> conversions = new ArrayList<Boolean>();
+        private final int arguments;
+        private final boolean simple;
+
+        private FormatPattern(String pattern) {
+            this.pattern = pattern;
+            Matcher matcher = SPECIFIER.matcher(pattern);
+            int position = 0;
+            int count = 0;
+            boolean simple = true;
+            while (matcher.find()) {
+                if (matcher.group(1) != null || (matcher.group(2) != null && matcher.group(2).contains("<")))
+                    simple = false;
+                add(pattern.substring(position, matcher.start()), false);
+                String conversion = matcher.group();
+                if ("%%".equals(conversion))
+                    add("%", false);
+                else if ("%n".equals(conversion))
+                    add(System.getProperty("line.separator"), false);
+                else {
+                    add(conversion, true);
+                    count++;
+                }
+                position = matcher.end();
+            }
+            String tail = pattern.substring(position);
+            if (tail.indexOf('%') >= 0)
+                simple = false;
+            add(tail, false);
+            this.arguments = count;
+            this.simple = simple;
+        }
+
+        private void add(String segment, boolean conversion) {
+            if (segment.isEmpty()) return;
+            segments.add(segment);
+            conversions.add(conversion);
+        }
+
+        public String format (Object... arguments) {
+            if (!simple || arguments.length < this.arguments)
+                return String.format(Locale.ROOT, pattern, arguments);
+
+            StringBuilder builder = new StringBuilder(pattern.length() + 16 * this.arguments);
+            Formatter formatter = null;
+            int argument = 0;
+            for (int i = 0; i < segments.size(); i++) {
+                String segment = segments.get(i);
+                if (!conversions.get(i)) {
+                    builder.append(segment);
+                    continue;
+                }
+                Object value = arguments[argument++];
+                if ("%s".equals(segment) && !(value instanceof Formattable))
+                    builder.append(String.valueOf(value));
+                else {
+                    if (formatter == null)
+                        formatter = new Formatter(builder, Locale.ROOT);
+                    formatter.format(segment, value);
+                }
+            }
+            return builder.toString();
+        }
+    }
+}
@@ -16,54 +16,98 @@
 
 package com.lyncode.jtwig.functions.util;
 
-import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
-import static java.util.Arrays.asList;
-import static java.util.regex.Pattern.*;
+import java.util.HashSet;
+import java.util.Set;
 
+/**
+ * Single pass tag stripper. Comments are dropped (an unterminated comment
+ * swallows the rest of the input), tags are dropped unless their name is
+ * in the allowed list and a lone {@code <} without a closing {@code >} is kept as text.
+ */
 public class HtmlUtils {
 
     private static final String START_COMMENT = "<!--";
     private static final String END_COMMENT = "-->";
 
     public static String stripTags (String input, String allowedTags) {
-        return removeUnknownTags(removeHtmlComments(input), allowedTags);
+        StringBuilder output = new StringBuilder(input.length());
+        stripTags(input, allowedTags, output);
+        return output.toString();
     }
     public static String stripTags (String input) {
-        return removeUnknownTags(removeHtmlComments(input), "");
+        return stripTags(input, "");
     }
 
-    private static String removeUnknownTags(String input, String knownTags) {
-        List<String> knownTagList = asList(knownTags.replaceAll("^<", "").replaceAll(">$", "").split("><"));
-        return removeTags(input, knownTagList);
-    }
+    public static void stripTags (String input, String allowedTags, StringBuilder output) {
+        Set<String> allowed = allowedTags(allowedTags);
+        int length = input.length();
+        int text = 0;
+        int position = 0;
+        // once no '>' is left there are no more tags to close, only comments
+        boolean noMoreTags = false;
+
+        while (position < length) {
+            int open = input.indexOf('<', position);
+            if (open == -1) break;
+
+            if (input.startsWith(START_COMMENT, open)) {
+                output.append(input, text, open);
+                int end = input.indexOf(END_COMMENT, open + START_COMMENT.length());
+                if (end == -1) return;
+                text = position = end + END_COMMENT.length();
+                continue;
+            }
 
-    private static String removeTags(String input, List<String> knownTagList) {
-        Pattern tag = compile("</?([^\\s>]*)\\s*[^>]*>", CASE_INSENSITIVE);
-        Matcher matches = tag.matcher(input);
-        while (matches.find()) {
-            if (!knownTagList.contains(matches.group(1))) {
-                input = input.replaceAll(quote(matches.group()), "");
+            int close = noMoreTags ? -1 : tagEnd(input, open + 1);
+            if (close == -1) {
+                noMoreTags = true;
+                position = open + 1;
+                continue;
             }
+
+            if (!allowed.contains(tagName(input, open + 1, close))) {
+                output.append(input, text, open);
+                text = close + 1;
+            }
+            position = close + 1;
         }
-        return input;
+        output.append(input, text, length);
     }
 
-    private static String removeTags (String input, String startTag, String endTag) {
-        while (input.contains(startTag)) {
-            int start = input.indexOf(startTag);
-            int end = input.substring(start + startTag.length()).indexOf(endTag);
-
-            if (end == -1) input = input.substring(0, start);
-            else input = input.substring(0, start) + input.substring(start + startTag.length() + end + endTag.length());
+    private static int tagEnd (String input, int position) {
+        int length = input.length();
+        while (position < length) {
+            char c = input.charAt(position);
+            if (c == '>') return position;
+            if (c == '<' && input.startsWith(START_COMMENT, position)) {
+                int end = input.indexOf(END_COMMENT, position + START_COMMENT.length());
+                if (end == -1) return -1;
+                position = end + END_COMMENT.length();
+            } else position++;
         }
+        return -1;
+    }
 
-        return input;
+    private static String tagName (String input, int start, int end) {
+        if (start < end && input.charAt(start) == '/') start++;
+        int position = start;
+        while (position < end && !Character.isWhitespace(input.charAt(position)))
+            position++;
+        return input.substring(start, position);
     }
 
-    private static String removeHtmlComments (String input) {
-        return removeTags(input, START_COMMENT, END_COMMENT);
+    private static Set<String> allowedTags (String allowedTags) {
+        int start = allowedTags.startsWith("<") ? 1 : 0;
+        int end = allowedTags.endsWith(">") && allowedTags.length() > start ? allowedTags.length() - 1 : allowedTags.length();
+        Set<String> result = new HashSet<String>();
+        while (true) {
+            int separator = allowedTags.indexOf("><", start);
+            if (separator == -1 || separator >= end) {
+                result.add(allowedTags.substring(start, end));
+                return result;
+            }
+            result.add(allowedTags.substring(start, separator));
+            start = separator + 2;
+        }
     }
 }
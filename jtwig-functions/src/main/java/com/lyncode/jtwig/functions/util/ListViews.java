@@ -0,0 +1,230 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.functions.util;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read only list views used by the list functions, so that taking a page
+ * of a big collection costs the size of the page and not of the collection.
+ */
+public class ListViews {
+    private static final int MAX_PARTS = 16;
+
+    /**
+     * Views lists and arrays as lists without copying, other iterables
+     * are copied and anything else becomes a single element list. Views are
+     * only ever read, so a list of any type can be viewed as a list of objects.
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Object> asList (Object input) {
+        if (input == null) return Collections.emptyList();
+        if (input instanceof List) return (List<Object>) input;
+        if (input instanceof Object[]) return Arrays.asList((Object[]) input);
+        if (input instanceof Collection) return new ArrayList<Object>((Collection<?>) input);
+        if (input instanceof Iterable) {
+            List<Object> result = new ArrayList<Object>();
+            for (Object item : (Iterable<?>) input)
+                result.add(item);
+            return result;
+        }
+        return Collections.singletonList(input);
+    }
+
+    public static int size (Object input) {
+        if (input instanceof Collection) return ((Collection<?>) input).size();
+        if (input instanceof Object[]) return ((Object[]) input).length;
+        if (input instanceof Iterable) {
+            int size = 0;
+            Iterator<?> iterator = ((Iterable<?>) input).iterator();
+            while (iterator.hasNext()) {
+                iterator.next();
+                size++;
+            }
+            return size;
+        }
+        return input == null ? 0 : 1;
+    }
+
+    public static List<Object> reversed (List<Object> list) {
+        return new ReversedList(list);
+    }
+
+    /**
+     * Concatenated lists are flattened into their parts, so merging in a loop
+     * doesn't nest views, and copied once there are too many parts to walk.
+     */
+    public static List<Object> concatenated (List<List<Object>> lists) {
+        List<List<Object>> parts = new ArrayList<List<Object>>(lists.size());
+        for (List<Object> list : lists) {
+            if (list instanceof ConcatenatedList) parts.addAll(((ConcatenatedList) list).lists);
+            else if (!list.isEmpty()) parts.add(list);
+        }
+        if (parts.size() <= MAX_PARTS) return new ConcatenatedList(parts);
+
+        List<Object> result = new ArrayList<Object>();
+        for (List<Object> part : parts)
+            result.addAll(part);
+        return result;
+    }
+
+    public static List<List<Object>> chunked (List<Object> list, int size, boolean fill, Object filler) {
+        return new ChunkedList(list, size, fill, filler);
+    }
+
+    /**
+     * The elements of the list at the first size given indices.
+     */
+    public static List<Object> selected (List<Object> list, int[] indices, int size) {
+        return new SelectedList(list, indices, size);
+    }
+
+    private static class ReversedList extends AbstractList<Object> implements RandomAccess {
+        private final List<Object> list;
+
+        private ReversedList(List<Object> list) {
+            this.list = list;
+        }
+
+        @Override
+        public Object get(int index) {
+            return list.get(list.size() - 1 - index);
+        }
+
+        @Override
+        public int size() {
+            return list.size();
+        }
+    }
+
+    private static class ConcatenatedList extends AbstractList<Object> {
+        private final List<List<Object>> lists;
+
+        private ConcatenatedList(List<List<Object>> lists) {
+            this.lists = lists;
+        }
+
+        @Override
+        public Object get(int index) {
+            if (index < 0) throw new IndexOutOfBoundsException("Index: " + index);
+            int offset = index;
+            for (List<Object> list : lists) {
+                if (offset < list.size()) return list.get(offset);
+                offset -= list.size();
+            }
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+
+        @Override
+        public Iterator<Object> iterator() {
+            return new Iterator<Object>() {
+                private final Iterator<List<Object>> lists = ConcatenatedList.this.lists.iterator();
+                private Iterator<Object> current = Collections.emptyList().iterator();
+
+                @Override
+                public boolean hasNext() {
+                    while (!current.hasNext() && lists.hasNext())
+                        current = lists.next().iterator();
+                    return current.hasNext();
+                }
+
+                @Override
+                public Object next() {
+                    hasNext();
+                    return current.next();
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (List<Object> list : lists)
+                size += list.size();
+            return size;
+        }
+    }
+
+    private static class ChunkedList extends AbstractList<List<Object>> implements RandomAccess {
+        private final List<Object> list;
+        private final int size;
+        private final boolean fill;
+        private final Object filler;
+
+        private ChunkedList(List<Object> list, int size, boolean fill, Object filler) {
+            this.list = list;
+            this.size = size;
+            this.fill = fill;
+            this.filler = filler;
+        }
+
+        @Override
+        public List<Object> get(int index) {
+            if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("Index: " + index);
+            int from = index * size;
+            int to = Math.min(list.size(), from + size);
+            List<Object> chunk = list.subList(from, to);
+            if (fill && to - from < size) {
+                List<List<Object>> parts = new ArrayList<List<Object>>(2);
+                parts.add(chunk);
+                parts.add(Collections.nCopies(size - (to - from), filler));
+                return concatenated(parts);
+            }
+            return chunk;
+        }
+
+        @Override
+        public int size() {
+            return size <= 0 ? 0 : (list.size() + size - 1) / size;
+        }
+    }
+
+    private static class SelectedList extends AbstractList<Object> implements RandomAccess {
+        private final List<Object> list;
+        private final int[] indices;
+        private final int size;
+
+        private SelectedList(List<Object> list, int[] indices, int size) {
+            this.list = list;
+            this.indices = indices;
+            this.size = size;
+        }
+
+        @Override
+        public Object get(int index) {
+            if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index);
+            return list.get(indices[index]);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
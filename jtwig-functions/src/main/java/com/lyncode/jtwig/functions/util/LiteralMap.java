@@ -0,0 +1,64 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.functions.util;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable map built from a constant map literal in a template. The same
+ * instance is handed out on every render, so functions may cache work
+ * derived from it (see {@link com.lyncode.jtwig.functions.internal.string.Replace}).
+ * Only built-in functions get it as it is, others getting a mutable copy.
+ */
+public class LiteralMap extends AbstractMap<String, Object> {
+    private final Map<String, Object> map;
+    private final int hashCode;
+
+    public LiteralMap(Map<String, Object> map) {
+        this.map = Collections.unmodifiableMap(new LinkedHashMap<String, Object>(map));
+        this.hashCode = this.map.hashCode();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return map.entrySet();
+    }
+
+    @Override
+    public Object get(Object key) {
+        return map.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return map.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.functions.util;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Replaces every key of a map by its value in a single left to right pass.
+ * At each position the longest matching key wins, and replaced text is
+ * never matched again. Empty keys and null values are ignored.
+ */
+public class MultiReplacer {
+    private final Node root = new Node();
+
+    public MultiReplacer(Map<?, ?> replacements) {
+        for (Map.Entry<?, ?> entry : replacements.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null)
+                continue;
+            String key = entry.getKey().toString();
+            if (key.isEmpty())
+                continue;
+            Node node = root;
+            for (int i = 0; i < key.length(); i++)
+                node = node.child(key.charAt(i), true);
+            node.replacement = entry.getValue().toString();
+        }
+    }
+
+    public String replace(String input) {
+        StringBuilder output = null;
+        int length = input.length();
+        int copied = 0;
+        int position = 0;
+        while (position < length) {
+            Node node = root;
+            String replacement = null;
+            int end = position;
+            for (int i = position; i < length; i++) {
+                node = node.child(input.charAt(i), false);
+                if (node == null) break;
+                if (node.replacement != null) {
+                    replacement = node.replacement;
+                    end = i + 1;
+                }
+            }
+            if (replacement == null) {
+                position++;
+                continue;
+            }
+            if (output == null)
+                output = new StringBuilder(length + 16);
+            output.append(input, copied, position).append(replacement);
+            copied = position = end;
+        }
+        if (output == null) return input;
+        return output.append(input, copied, length).toString();
+    }
+
+    private static class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private String replacement;
+
+        private Node child(char c, boolean create) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index >= 0) return children[index];
+            if (!create) return null;
+
+            int insert = -index - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insert);
+            System.arraycopy(children, 0, newChildren, 0, insert);
+            System.arraycopy(keys, insert, newKeys, insert + 1, keys.length - insert);
+            System.arraycopy(children, insert, newChildren, insert + 1, children.length - insert);
+            newKeys[insert] = c;
+            newChildren[insert] = new Node();
+            keys = newKeys;
+            children = newChildren;
+            return newChildren[insert];
+        }
+    }
+}
@@ -16,28 +16,17 @@
 
 package com.lyncode.jtwig.functions.util;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
 public class ObjectIterator {
-    private List<Object> list = new ArrayList<Object>();
+    private List<Object> list;
     private Iterator<Object> iterator = null;
     private int size;
 
     public ObjectIterator(Object context) {
-        list = new ArrayList<Object>();
-        if (context != null) {
-            if (context instanceof Iterable) {
-                Iterator iterator = ((Iterable) context).iterator();
-                while (iterator.hasNext())
-                    list.add(iterator.next());
-            } else if (context.getClass().isArray()) {
-                Object[] objects = (Object[]) context;
-                for (Object obj : objects)
-                    list.add(obj);
-            } else list.add(context);
-        }
+        list = context == null ? Collections.emptyList() : ListViews.asList(context);
         size = list.size();
         iterator = list.iterator();
     }
@@ -0,0 +1,80 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.functions.util;
+
+import com.lyncode.jtwig.functions.exceptions.FunctionException;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads a named property of an object in the order templates do (public
+ * field, public method named as the property or prefixed with get, is or
+ * has, ignoring case, then map key). The member found is cached per class.
+ */
+public class PropertyAccessor {
+    private static final String[] PREFIXES = new String[]{ "", "get", "is", "has" };
+    private static final Object NONE = new Object();
+    private static final Map<Class<?>, Map<String, Object>> MEMBERS = new ConcurrentHashMap<Class<?>, Map<String, Object>>();
+
+    public static Object get (Object object, String name) throws FunctionException {
+        if (object == null) return null;
+
+        Member member = member(object.getClass(), name);
+        try {
+            if (member instanceof Field)
+                return ((Field) member).get(object);
+            if (member instanceof Method)
+                return ((Method) member).invoke(object);
+        } catch (IllegalAccessException e) {
+            if (!(object instanceof Map)) throw new FunctionException(e);
+        } catch (InvocationTargetException e) {
+            throw new FunctionException(e);
+        }
+        if (object instanceof Map) return ((Map<?, ?>) object).get(name);
+        throw new FunctionException("Unable to find field or method " + name + " in " + object.getClass().getName());
+    }
+
+    private static Member member (Class<?> type, String name) {
+        Map<String, Object> members = MEMBERS.get(type);
+        if (members == null) {
+            members = new ConcurrentHashMap<String, Object>();
+            MEMBERS.put(type, members);
+        }
+        Object member = members.get(name);
+        if (member == null) {
+            member = find(type, name);
+            members.put(name, member == null ? NONE : member);
+        }
+        return member instanceof Member ? (Member) member : null;
+    }
+
+    private static Member find (Class<?> type, String name) {
+        for (Field field : type.getFields())
+            if (field.getName().equalsIgnoreCase(name))
+                return field;
+        for (String prefix : PREFIXES)
+            for (Method method : type.getMethods())
+                if (method.getParameterTypes().length == 0 && method.getName().equalsIgnoreCase(prefix + name))
+                    return method;
+        return null;
+    }
+}
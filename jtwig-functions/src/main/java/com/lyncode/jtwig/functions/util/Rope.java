@@ -0,0 +1,174 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.functions.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable text made of segments, only copied into a single String when
+ * something asks for it (and then only once). Appending a rope to another
+ * one shares its segments instead of copying characters, and appending to
+ * the end of a rope reuses its segment array, so building text in a loop
+ * costs the number of segments appended and not the ones already there.
+ */
+public final class Rope implements CharSequence {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final CharSequence[] segments;
+    private final int count;
+    private final int length;
+    private final AtomicInteger used;
+    private volatile String flat;
+
+    private Rope(CharSequence[] segments, int count, int length, AtomicInteger used) {
+        this.segments = segments;
+        this.count = count;
+        this.length = length;
+        this.used = used;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static Object flatten(Object value) {
+        if (value instanceof Rope) return value.toString();
+        return value;
+    }
+
+    public int segmentCount() {
+        return count;
+    }
+
+    public CharSequence segment(int index) {
+        if (index >= count) throw new IndexOutOfBoundsException("Index: " + index);
+        return segments[index];
+    }
+
+    /**
+     * Writes every segment using the platform default charset.
+     */
+    public void write(OutputStream outputStream) throws IOException {
+        if (flat != null) {
+            outputStream.write(flat.getBytes());
+            return;
+        }
+        for (int i = 0; i < count; i++)
+            outputStream.write(segments[i].toString().getBytes());
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return toString().charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        String result = flat;
+        if (result == null) {
+            if (count == 1) {
+                result = segments[0].toString();
+            } else {
+                StringBuilder builder = new StringBuilder(length);
+                for (int i = 0; i < count; i++)
+                    builder.append(segments[i]);
+                result = builder.toString();
+            }
+            flat = result;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof Rope)) return false;
+        Rope other = (Rope) obj;
+        return length == other.length && toString().equals(other.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return toString().hashCode();
+    }
+
+    /**
+     * Builds a rope, appending in place to the segment array of the rope it
+     * starts with when no other rope was built past its end. The slots of a
+     * shared array are claimed atomically, so ropes built from the same one
+     * concurrently (or twice) copy instead of overwriting each other.
+     */
+    public static class Builder {
+        private CharSequence[] segments = new CharSequence[INITIAL_CAPACITY];
+        private int count = 0;
+        private int length = 0;
+        private AtomicInteger used = new AtomicInteger();
+
+        /**
+         * Appends the text of the given value, nulls are ignored.
+         */
+        public Builder append(Object value) {
+            if (value == null) return this;
+            if (value instanceof Rope) {
+                Rope rope = (Rope) value;
+                if (count == 0) {
+                    segments = rope.segments;
+                    count = rope.count;
+                    length = rope.length;
+                    used = rope.used;
+                    return this;
+                }
+                for (int i = 0; i < rope.count; i++)
+                    add(rope.segments[i]);
+                return this;
+            }
+            return add(value.toString());
+        }
+
+        private Builder add(CharSequence segment) {
+            if (segment.length() == 0) return this;
+            if (count == segments.length || !used.compareAndSet(count, count + 1)) {
+                segments = Arrays.copyOf(segments, Math.max(INITIAL_CAPACITY, count * 2));
+                used = new AtomicInteger(count + 1);
+            }
+            segments[count++] = segment;
+            length += segment.length();
+            return this;
+        }
+
+        public int length() {
+            return length;
+        }
+
+        public Rope build() {
+            return new Rope(segments, count, length, used);
+        }
+    }
+}
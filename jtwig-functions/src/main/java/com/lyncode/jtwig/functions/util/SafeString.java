@@ -0,0 +1,69 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.functions.util;
+
+/**
+ * Marks a value as already escaped (or trusted), so it is written as is
+ * by autoescaping output expressions and by the escape function.
+ */
+public class SafeString implements CharSequence {
+    private final String value;
+
+    public SafeString(String value) {
+        this.value = value;
+    }
+
+    /**
+     * The text of a safe string, anything else as is.
+     */
+    public static Object flatten(Object value) {
+        if (value instanceof SafeString) return value.toString();
+        return value;
+    }
+
+    @Override
+    public int length() {
+        return value.length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        return value.charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new SafeString(value.substring(start, end));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SafeString)) return false;
+        return value.equals(((SafeString) o).value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
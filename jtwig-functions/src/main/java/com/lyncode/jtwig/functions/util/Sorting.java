@@ -0,0 +1,251 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.functions.util;
+
+import com.lyncode.jtwig.functions.exceptions.FunctionException;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sorting and grouping of lists, extracting the key of each element only
+ * once. Big inputs are sorted in parallel when the running JVM supports it
+ * (Java 8 Arrays.parallelSort).
+ */
+public class Sorting {
+    public static final int PARALLEL_THRESHOLD = 8192;
+
+    private static final Method PARALLEL_SORT = parallelSort();
+
+    /**
+     * A total order on any values: null first, then numbers by value, then
+     * strings, then other comparable values grouped by class, then anything
+     * else grouped by class and ordered by its string form.
+     */
+    private static final Comparator<Object> NATURAL = new Comparator<Object>() {
+        @Override
+        public int compare(Object a, Object b) {
+            if (a == b) return 0;
+            int rank = compareInts(rank(a), rank(b));
+            if (rank != 0) return rank;
+            if (a instanceof Number) return compareNumbers((Number) a, (Number) b);
+            if (a.getClass() != b.getClass()) return a.getClass().getName().compareTo(b.getClass().getName());
+            if (a instanceof Comparable) return compareComparables((Comparable<?>) a, b);
+            return a.toString().compareTo(b.toString());
+        }
+    };
+
+    private static final Comparator<Object> BY_KEY = new Comparator<Object>() {
+        @Override
+        public int compare(Object a, Object b) {
+            return NATURAL.compare(((Keyed) a).key, ((Keyed) b).key);
+        }
+    };
+
+    /**
+     * A sorted copy of the list, null first, then numbers, strings and
+     * other values (see the natural order above).
+     */
+    public static List<Object> sorted (List<Object> list) {
+        Object[] values = list.toArray();
+        sort(values, NATURAL);
+        return Arrays.asList(values);
+    }
+
+    /**
+     * A copy of the list sorted by the given property of its elements.
+     */
+    public static List<Object> sortedBy (List<Object> list, String property) throws FunctionException {
+        Object[] values = new Object[list.size()];
+        int i = 0;
+        for (Object value : list)
+            values[i++] = new Keyed(PropertyAccessor.get(value, property), value);
+        sort(values, BY_KEY);
+        for (i = 0; i < values.length; i++)
+            values[i] = ((Keyed) values[i]).value;
+        return Arrays.asList(values);
+    }
+
+    /**
+     * Groups the elements by the given property, keeping the order in which
+     * keys first appear. Groups are views over the given list.
+     */
+    public static Map<Object, List<Object>> groupedBy (List<Object> list, String property) throws FunctionException {
+        Map<Object, Group> groups = new LinkedHashMap<Object, Group>();
+        int i = 0;
+        for (Object value : list) {
+            Object key = PropertyAccessor.get(value, property);
+            Group group = groups.get(key);
+            if (group == null) {
+                group = new Group();
+                groups.put(key, group);
+            }
+            group.add(i++);
+        }
+
+        Map<Object, List<Object>> result = new LinkedHashMap<Object, List<Object>>();
+        for (Map.Entry<Object, Group> entry : groups.entrySet())
+            result.put(entry.getKey(), ListViews.selected(list, entry.getValue().indices, entry.getValue().size));
+        return result;
+    }
+
+    /**
+     * The distinct elements of the list in their original order, the list
+     * itself if there are no duplicates.
+     */
+    public static List<Object> unique (List<Object> list) {
+        Set<Object> seen = new HashSet<Object>();
+        int[] indices = null;
+        int size = 0;
+        int i = 0;
+        for (Object value : list) {
+            if (seen.add(value)) {
+                if (indices != null) indices[size] = i;
+                size++;
+            } else if (indices == null) {
+                indices = new int[list.size()];
+                for (int j = 0; j < size; j++)
+                    indices[j] = j;
+            }
+            i++;
+        }
+        if (indices == null) return list;
+        return ListViews.selected(list, indices, size);
+    }
+
+    private static int rank (Object value) {
+        if (value == null) return 0;
+        if (value instanceof Number) return 1;
+        if (value instanceof String) return 2;
+        if (value instanceof Comparable) return 3;
+        return 4;
+    }
+
+    /**
+     * Numbers of different types compare exactly, as decimals, with infinities
+     * at both ends and NaN last.
+     */
+    private static int compareNumbers (Number a, Number b) {
+        if (isIntegral(a) && isIntegral(b)) return compareLongs(a.longValue(), b.longValue());
+        if (isFloating(a) && isFloating(b)) return compareDoubles(a.doubleValue(), b.doubleValue());
+
+        int kind = compareInts(kind(a), kind(b));
+        if (kind != 0 || kind(a) != 0) return kind;
+        return decimal(a).compareTo(decimal(b));
+    }
+
+    private static int compareDoubles (double a, double b) {
+        if (a < b) return -1;
+        if (a > b) return 1;
+        if (a == b) return 0;
+        return compareInts(kind(a), kind(b));
+    }
+
+    private static boolean isIntegral (Number number) {
+        return number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte;
+    }
+
+    private static boolean isFloating (Number number) {
+        return number instanceof Double || number instanceof Float;
+    }
+
+    private static int kind (Number number) {
+        if (number instanceof BigDecimal || number instanceof BigInteger || isIntegral(number)) return 0;
+        return kind(number.doubleValue());
+    }
+
+    private static int kind (double value) {
+        if (Double.isNaN(value)) return 2;
+        if (Double.isInfinite(value)) return value < 0 ? -1 : 1;
+        return 0;
+    }
+
+    private static BigDecimal decimal (Number number) {
+        if (number instanceof BigDecimal) return (BigDecimal) number;
+        if (number instanceof BigInteger) return new BigDecimal((BigInteger) number);
+        if (isIntegral(number)) return BigDecimal.valueOf(number.longValue());
+        return new BigDecimal(number.doubleValue());
+    }
+
+    private static int compareLongs (long a, long b) {
+        return a < b ? -1 : (a == b ? 0 : 1);
+    }
+
+    private static int compareInts (int a, int b) {
+        return a < b ? -1 : (a == b ? 0 : 1);
+    }
+
+    // values of the same class
+    @SuppressWarnings("unchecked")
+    private static int compareComparables (Comparable<?> a, Object b) {
+        return ((Comparable<Object>) a).compareTo(b);
+    }
+
+    private static void sort (Object[] values, Comparator<Object> comparator) {
+        if (values.length >= PARALLEL_THRESHOLD && PARALLEL_SORT != null) {
+            try {
+                PARALLEL_SORT.invoke(null, values, comparator);
+                return;
+            } catch (IllegalAccessException e) {
+                // fall back to a sequential sort
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof RuntimeException)
+                    throw (RuntimeException) e.getCause();
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        Arrays.sort(values, comparator);
+    }
+
+    private static Method parallelSort () {
+        try {
+            return Arrays.class.getMethod("parallelSort", Object[].class, Comparator.class);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static class Keyed {
+        private final Object key;
+        private final Object value;
+
+        private Keyed(Object key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private static class Group {
+        private int[] indices = new int[4];
+        private int size = 0;
+
+        private void add(int index) {
+            if (size == indices.length)
+                indices = Arrays.copyOf(indices, size * 2);
+            indices[size++] = index;
+        }
+    }
+}
@@ -16,9 +16,14 @@
 
 package com.lyncode.jtwig.functions.internal.generic;
 
+import org.codehaus.jackson.map.ObjectMapper;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+
+import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class JsonEncodeTest {
     private JsonEncode underTest = new JsonEncode();
@@ -29,6 +34,22 @@ public class JsonEncodeTest {
         assertEquals("{\"hello\":\"world\"}", underTest.execute(world));
     }
 
+    @Test
+    public void testExecuteToStream() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        underTest.execute(outputStream, asList(new Hello("a"), new Hello("b")));
+        assertEquals("[{\"hello\":\"a\"},{\"hello\":\"b\"}]", outputStream.toString());
+    }
+
+    @Test
+    public void testCustomWriter() throws Exception {
+        JsonEncode encode = new JsonEncode(new ObjectMapper().writerWithDefaultPrettyPrinter());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        encode.execute(outputStream, new Hello("world"));
+        assertEquals(encode.execute(new Hello("world")), outputStream.toString());
+        assertTrue(outputStream.toString().contains("\n"));
+    }
+
     private static class Hello {
         private String hello;
 
@@ -17,6 +17,7 @@
 package com.lyncode.jtwig.functions.internal.list;
 
 import com.lyncode.jtwig.functions.exceptions.FunctionException;
+import com.lyncode.jtwig.functions.util.Rope;
 import org.junit.Test;
 
 import static org.hamcrest.CoreMatchers.is;
@@ -36,4 +37,12 @@ public class ConcatenateTest {
         String result = (String) underTest.execute();
         assertThat(result, is(""));
     }
+
+    @Test
+    public void lazyResultSharesTheSegmentsOfRopeArguments () throws FunctionException {
+        Rope first = (Rope) underTest.executeLazy("a", "b");
+        Rope result = (Rope) underTest.executeLazy(first, "c");
+        assertThat(result.segmentCount(), is(3));
+        assertThat(result.toString(), is("abc"));
+    }
 }
@@ -18,6 +18,7 @@ package com.lyncode.jtwig.functions.internal.list;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -37,6 +38,18 @@ public class MergeTest {
         assertEquals(2, result.get(3));
     }
     @Test
+    public void testMergeInLoop() throws Exception {
+        Object result = new ArrayList<Object>();
+        for (int i = 0; i < 20000; i++)
+            result = underTest.execute(result, asList(i));
+        List list = (List) result;
+        assertEquals(20000, list.size());
+        assertEquals(12345, list.get(12345));
+        int expected = 0;
+        for (Object item : list)
+            assertEquals(expected++, item);
+    }
+    @Test
     public void testExecuteArrays() throws Exception {
         Object firstHalf = (Object) new String[]{"a", "b"};
         Object secondHalf = (Object) new Integer[]{1, 2};
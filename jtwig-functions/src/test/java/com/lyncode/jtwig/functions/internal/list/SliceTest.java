@@ -18,6 +18,7 @@ package com.lyncode.jtwig.functions.internal.list;
 
 import org.junit.Test;
 
+import java.util.LinkedHashSet;
 import java.util.List;
 
 import static java.util.Arrays.asList;
@@ -48,4 +49,24 @@ public class SliceTest {
         String result = (String) underTest.execute("ab", 3, 2);
         assertEquals("", result);
     }
+
+    @Test
+    public void testExecuteArray() throws Exception {
+        Object[] result = (Object[]) underTest.execute(new Object[]{1, 2, 3, 4, 5}, 3, 10);
+        assertEquals(2, result.length);
+        assertEquals(4, result[0]);
+        assertEquals(5, result[1]);
+    }
+
+    @Test
+    public void testExecuteListOutOfBounds() throws Exception {
+        List result = (List) underTest.execute(asList(1, 2, 3), 5, 2);
+        assertEquals(0, result.size());
+    }
+
+    @Test
+    public void testExecuteIterable() throws Exception {
+        List result = (List) underTest.execute(new LinkedHashSet<Integer>(asList(1, 2, 3, 4)), 1, 2);
+        assertEquals(asList(2, 3), result);
+    }
 }
@@ -19,6 +19,8 @@ package com.lyncode.jtwig.functions.internal.math;
 import com.lyncode.jtwig.functions.exceptions.FunctionException;
 import org.junit.Test;
 
+import java.util.Locale;
+
 import static org.junit.Assert.assertEquals;
 
 public class JNumberFormatTest {
@@ -28,4 +30,15 @@ public class JNumberFormatTest {
     public void testExecute() throws FunctionException {
         assertEquals("1,234.57", underTest.execute(1234.5678, 2, ".", ","));
     }
+
+    @Test
+    public void ignoresTheDefaultLocale() throws FunctionException {
+        Locale locale = Locale.getDefault();
+        Locale.setDefault(Locale.GERMANY);
+        try {
+            assertEquals("1,234.568", underTest.execute(1234.5678, 3));
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
 }
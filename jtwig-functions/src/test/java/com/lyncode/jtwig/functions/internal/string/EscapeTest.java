@@ -16,25 +16,48 @@
 
 package com.lyncode.jtwig.functions.internal.string;
 
+import com.lyncode.jtwig.functions.exceptions.FunctionException;
+import com.lyncode.jtwig.functions.util.SafeString;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 public class EscapeTest {
     private Escape underTest = new Escape();
 
     @Test
     public void testExecuteDefault() throws Exception {
-        assertEquals("&lt;html&gt;", underTest.execute("<html>"));
+        assertEquals(new SafeString("&lt;html&gt;"), underTest.execute("<html>"));
     }
 
     @Test
     public void testExecuteXml() throws Exception {
-        assertEquals("&lt;xml /&gt;", underTest.execute("<xml />", "xml"));
+        assertEquals(new SafeString("&lt;xml /&gt;"), underTest.execute("<xml />", "xml"));
     }
 
     @Test
     public void testExecuteJs() throws Exception {
-        assertEquals("<xml \\/>", underTest.execute("<xml />", "js"));
+        assertEquals(new SafeString("<xml \\/>"), underTest.execute("<xml />", "js"));
+    }
+
+    @Test
+    public void testExecuteToStream() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        underTest.execute(outputStream, "<a>'test'</a>", "html");
+        assertEquals("&lt;a&gt;'test'&lt;/a&gt;", outputStream.toString());
+    }
+
+    @Test
+    public void testSafeStringIsNotEscapedAgain() throws Exception {
+        SafeString value = new SafeString("&lt;html&gt;");
+        assertSame(value, underTest.execute(value));
+    }
+
+    @Test(expected = FunctionException.class)
+    public void testUnknownStrategy() throws Exception {
+        underTest.execute("<html>", "css");
     }
 }
@@ -18,6 +18,8 @@ package com.lyncode.jtwig.functions.internal.string;
 
 import org.junit.Test;
 
+import java.util.Locale;
+
 import static org.junit.Assert.assertEquals;
 
 public class FormatTest {
@@ -28,4 +30,15 @@ public class FormatTest {
         assertEquals("I like foo and bar.", underTest.execute("I like %s and %s.", "foo", "bar"));
         assertEquals("I like it.", underTest.execute("I like it."));
     }
+
+    @Test
+    public void ignoresTheDefaultLocale() throws Exception {
+        Locale locale = Locale.getDefault();
+        Locale.setDefault(Locale.GERMANY);
+        try {
+            assertEquals("1.50 and 1,000", underTest.execute("%.2f and %,d", 1.5, 1000));
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
 }
@@ -0,0 +1,40 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.functions.internal.string;
+
+import com.lyncode.jtwig.functions.util.SafeString;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RawTest {
+    private Raw underTest = new Raw();
+
+    @Test
+    public void testExecute() throws Exception {
+        Object result = underTest.execute("<b>");
+        assertTrue(result instanceof SafeString);
+        assertEquals("<b>", result.toString());
+    }
+
+    @Test
+    public void testExecuteNull() throws Exception {
+        assertNull(underTest.execute(new Object[]{null}));
+    }
+}
@@ -16,9 +16,11 @@
 
 package com.lyncode.jtwig.functions.internal.string;
 
+import com.lyncode.jtwig.functions.util.LiteralMap;
 import org.junit.Test;
 
 import java.util.HashMap;
+import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 
@@ -34,4 +36,35 @@ public class ReplaceTest {
 
         assertEquals("I like foo and bar.", result);
     }
+
+    @Test
+    public void longestKeyWins() throws Exception {
+        Object result = underTest.execute("%a% %ab% %abc", new HashMap<String, String>() {{
+            put("%a", "1");
+            put("%ab", "2");
+            put("%ab%", "3");
+        }});
+
+        assertEquals("1% 3 2c", result);
+    }
+
+    @Test
+    public void replacementsAreNotReplacedAgain() throws Exception {
+        Object result = underTest.execute("a b", new HashMap<String, String>() {{
+            put("a", "b");
+            put("b", "a");
+        }});
+
+        assertEquals("b a", result);
+    }
+
+    @Test
+    public void literalMapsAreCached() throws Exception {
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("{name}", "jtwig");
+        LiteralMap literal = new LiteralMap(map);
+
+        assertEquals("Hi jtwig", underTest.execute("Hi {name}", literal));
+        assertEquals("Bye jtwig", underTest.execute("Bye {name}", new LiteralMap(map)));
+    }
 }
@@ -17,6 +17,7 @@
 package com.lyncode.jtwig.functions.internal.string;
 
 import com.lyncode.jtwig.functions.exceptions.FunctionException;
+import com.lyncode.jtwig.functions.util.CharSinks;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
@@ -43,4 +44,13 @@ public class TrimTest {
     public void nullPointer() throws Exception {
         assertNull(underTest.execute((Object) null));
     }
+
+    @Test
+    public void fusedTrimMatchesExecute() throws Exception {
+        for (String value : new String[]{"  a b \t\n", "", "   ", "a", " \u00e9 x "}) {
+            StringBuilder builder = new StringBuilder();
+            CharSinks.write(value, underTest.fuse(CharSinks.to(builder), (Object) null));
+            assertEquals(underTest.execute(value), builder.toString());
+        }
+    }
 }
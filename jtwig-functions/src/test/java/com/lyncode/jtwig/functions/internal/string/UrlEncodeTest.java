@@ -16,6 +16,7 @@
 
 package com.lyncode.jtwig.functions.internal.string;
 
+import com.lyncode.jtwig.functions.util.CharSinks;
 import org.junit.Test;
 
 import java.util.TreeMap;
@@ -34,4 +35,12 @@ public class UrlEncodeTest {
             put("foo", "b");
         }}));
     }
+
+    @Test
+    public void fusedEncodeMatchesExecute() throws Exception {
+        String value = "a b/c?d=e&f~g.h-i*j_k+l%m";
+        StringBuilder builder = new StringBuilder();
+        CharSinks.write(value, underTest.fuse(CharSinks.to(builder), (Object) null));
+        assertEquals(underTest.execute(value), builder.toString());
+    }
 }
@@ -0,0 +1,56 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.functions.repository;
+
+import com.lyncode.jtwig.functions.exceptions.FunctionNotFoundException;
+import com.lyncode.jtwig.functions.internal.list.Concatenate;
+import com.lyncode.jtwig.functions.internal.string.Upper;
+import org.junit.Test;
+
+import static com.lyncode.jtwig.functions.repository.DefaultFunctionRepository.defaultFunctionRepository;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class DefaultFunctionRepositoryTest {
+    @Test
+    public void builtInFunctionsAreSharedBetweenRepositories() throws Exception {
+        assertThat(new DefaultFunctionRepository().retrieve("concat"),
+                is(sameInstance(defaultFunctionRepository().retrieve("concatenate"))));
+    }
+
+    @Test
+    public void addedFunctionsOverrideBuiltInOnesForThatRepositoryOnly() throws Exception {
+        DefaultFunctionRepository repository = new DefaultFunctionRepository();
+        repository.addFunctions(new FunctionDeclaration(new Upper(), "concat", "shout"));
+
+        assertThat(repository.retrieve("concat"), is(instanceOf(Upper.class)));
+        assertThat(repository.retrieve("shout"), is(instanceOf(Upper.class)));
+        assertThat(defaultFunctionRepository().retrieve("concat"), is(instanceOf(Concatenate.class)));
+    }
+
+    @Test(expected = FunctionNotFoundException.class)
+    public void unknownFunction() throws Exception {
+        defaultFunctionRepository().retrieve("unknown");
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void sharedRepositoryIsImmutable() throws Exception {
+        defaultFunctionRepository().addFunctions(new FunctionDeclaration(new Upper(), "upper"));
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.util;
+
+import com.lyncode.jtwig.functions.util.Escaper;
+import org.apache.commons.lang3.StringEscapeUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class EscaperTest {
+    private static final String[] INPUTS = {
+            "",
+            "Nothing to escape here",
+            "<a href=\"test\">Tom & 'Jerry'</a>",
+            "café ♦  ÿ Ā",
+            "line\nbreak\ttab\r\b\f\u0001\u001f\u007f",
+            "// \\ ' \" </script>"
+    };
+
+    @Test
+    public void htmlShouldMatchCommonsLang() throws Exception {
+        for (String input : INPUTS)
+            assertThat(Escaper.HTML.escape(input), is(equalTo(StringEscapeUtils.escapeHtml4(input))));
+    }
+
+    @Test
+    public void xmlShouldMatchCommonsLang() throws Exception {
+        for (String input : INPUTS)
+            assertThat(Escaper.XML.escape(input), is(equalTo(StringEscapeUtils.escapeXml(input))));
+    }
+
+    @Test
+    public void javascriptShouldMatchCommonsLang() throws Exception {
+        for (String input : INPUTS)
+            assertThat(Escaper.JAVASCRIPT.escape(input), is(equalTo(StringEscapeUtils.escapeEcmaScript(input))));
+    }
+
+    @Test
+    public void javascriptEscapesSurrogatePairsAsTwoUnits() throws Exception {
+        assertThat(Escaper.JAVASCRIPT.escape("😀"), is(equalTo("\\uD83D\\uDE00")));
+    }
+
+    @Test
+    public void shouldReturnSameInstanceWhenNothingToEscape() throws Exception {
+        String input = "Nothing to escape here";
+        assertThat(Escaper.HTML.escape(input), is(sameInstance(input)));
+    }
+
+    @Test
+    public void writeShouldProduceSameBytesAsEscape() throws Exception {
+        StringBuilder longInput = new StringBuilder();
+        for (int i = 0; i < 500; i++)
+            longInput.append("<b>café</b> & ");
+
+        for (String input : INPUTS) {
+            assertSameBytes(Escaper.HTML, input);
+            assertSameBytes(Escaper.XML, input);
+            assertSameBytes(Escaper.JAVASCRIPT, input);
+        }
+        assertSameBytes(Escaper.HTML, longInput.toString());
+    }
+
+    private void assertSameBytes(Escaper escaper, String input) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        escaper.write(input, outputStream);
+        assertThat(outputStream.toString(), is(equalTo(new String(escaper.escape(input).getBytes()))));
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.util;
+
+import com.lyncode.jtwig.functions.util.Formatters;
+import org.junit.Test;
+
+import java.util.Date;
+
+import static com.lyncode.jtwig.functions.util.Formatters.formatPattern;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class FormattersTest {
+    @Test
+    public void dateFormatsAreReusedPerThread() throws Exception {
+        assertSame(Formatters.dateFormat("yyyy"), Formatters.dateFormat("yyyy"));
+        assertNotSame(Formatters.dateFormat("yyyy"), Formatters.dateFormat("MM"));
+    }
+
+    @Test
+    public void numberFormatsAreKeyedByOptions() throws Exception {
+        assertSame(Formatters.numberFormat(2, ".", ","), Formatters.numberFormat(2, ".", ","));
+        assertEquals("1,234.57", Formatters.numberFormat(2, ".", ",").format(1234.5678));
+        assertEquals("1 234,6", Formatters.numberFormat(1, ",", " ").format(1234.5678));
+    }
+
+    @Test
+    public void formatPatternMatchesStringFormat() throws Exception {
+        Object[][] cases = new Object[][]{
+                {"I like %s and %s.", new Object[]{"foo", "bar"}},
+                {"%5.2f%% of %d%n", new Object[]{12.345, 7}},
+                {"%2$s %1$s", new Object[]{"a", "b"}},
+                {"%s %<s", new Object[]{"a"}},
+                {"%-4s|%x", new Object[]{null, 255}},
+                {"%tY", new Object[]{new Date(0)}},
+                {"no conversions", new Object[0]}
+        };
+        for (Object[] example : cases) {
+            String pattern = (String) example[0];
+            Object[] arguments = (Object[]) example[1];
+            assertEquals(String.format(pattern, arguments), formatPattern(pattern).format(arguments));
+        }
+        assertSame(formatPattern("%s"), formatPattern("%s"));
+    }
+}
@@ -40,8 +40,18 @@ public class HtmlUtilsTest {
         assertThat(stripTags("<a href='asd'>Hello</a>. Joao <a>Melo</a>"), is(equalTo("Hello. Joao Melo")));
     }
 
+    @Test
     public void withAllowedTags () {
         assertThat(stripTags("<a href='asd'>Hello</a>", "<a>"), is(equalTo("<a href='asd'>Hello</a>")));
         assertThat(stripTags("<a href='asd'\n>Hello</a>", "<a>"), is(equalTo("<a href='asd'\n>Hello</a>")));
+        assertThat(stripTags("<p><b>Hello</b> <i>world</i></p>", "<b><i>"), is(equalTo("<b>Hello</b> <i>world</i>")));
+    }
+
+    @Test
+    public void unclosedTagsAndComments () throws Exception {
+        assertThat(stripTags("a < b"), is(equalTo("a < b")));
+        assertThat(stripTags("x <b>y</b> <"), is(equalTo("x y <")));
+        assertThat(stripTags("text<!-- never closed <b>"), is(equalTo("text")));
+        assertThat(stripTags("<b <!-- > -->>bold</b>"), is(equalTo("bold")));
     }
 }
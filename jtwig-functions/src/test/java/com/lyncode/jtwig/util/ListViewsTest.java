@@ -0,0 +1,83 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.util;
+
+import com.lyncode.jtwig.functions.util.ListViews;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static com.lyncode.jtwig.functions.util.ListViews.chunked;
+import static com.lyncode.jtwig.functions.util.ListViews.concatenated;
+import static com.lyncode.jtwig.functions.util.ListViews.reversed;
+import static com.lyncode.jtwig.functions.util.ListViews.size;
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ListViewsTest {
+    @Test
+    public void listsAreNotCopied() throws Exception {
+        List<Object> list = new ArrayList<Object>();
+        assertThat(ListViews.asList(list), is(sameInstance(list)));
+    }
+
+    @Test
+    public void sizeOfIterable() throws Exception {
+        Iterable<Integer> iterable = new Iterable<Integer>() {
+            @Override
+            public Iterator<Integer> iterator() {
+                return asList(1, 2, 3).iterator();
+            }
+        };
+        assertThat(size(iterable), is(3));
+        assertThat(size(new Object[]{1, 2}), is(2));
+        assertThat(size(null), is(0));
+    }
+
+    @Test
+    public void reversedView() throws Exception {
+        assertThat(reversed(asList((Object) 1, 2, 3)), is((List<Object>) asList((Object) 3, 2, 1)));
+    }
+
+    @Test
+    public void concatenatedView() throws Exception {
+        List<Object> result = concatenated(asList(asList((Object) 1), new ArrayList<Object>(), asList((Object) 2, 3)));
+        assertThat(result.size(), is(3));
+        assertThat(result.get(2), is((Object) 3));
+        assertThat(new ArrayList<Object>(result), is((List<Object>) asList((Object) 1, 2, 3)));
+    }
+
+    @Test
+    public void concatenatedViewsAreFlattened() throws Exception {
+        List<Object> inner = concatenated(asList(asList((Object) 1), asList((Object) 2)));
+        List<Object> result = concatenated(asList(inner, asList((Object) 3)));
+        assertThat(result.getClass(), is((Object) inner.getClass()));
+        assertThat(new ArrayList<Object>(result), is((List<Object>) asList((Object) 1, 2, 3)));
+    }
+
+    @Test
+    public void chunkedView() throws Exception {
+        List<List<Object>> result = chunked(asList((Object) 1, 2, 3, 4, 5), 2, true, 0);
+        assertThat(result.size(), is(3));
+        assertThat(result.get(1), is((List<Object>) asList((Object) 3, 4)));
+        assertThat(new ArrayList<Object>(result.get(2)), is((List<Object>) asList((Object) 5, 0)));
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.util;
+
+import com.lyncode.jtwig.functions.util.Rope;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class RopeTest {
+    @Test
+    public void nullAndEmptyValuesAreSkipped() throws Exception {
+        Rope rope = Rope.builder().append("a").append(null).append("").append(1).build();
+        assertThat(rope.segmentCount(), is(2));
+        assertThat(rope.length(), is(2));
+        assertThat(rope.toString(), is("a1"));
+    }
+
+    @Test
+    public void appendingARopeSharesItsSegments() throws Exception {
+        Rope inner = Rope.builder().append("b").append("c").build();
+        Rope rope = Rope.builder().append("a").append(inner).build();
+        assertThat(rope.segmentCount(), is(3));
+        assertThat(rope.segment(1) == inner.segment(0), is(true));
+        assertThat(rope.toString(), is("abc"));
+    }
+
+    @Test
+    public void appendingToTheEndOfARopeInALoop() throws Exception {
+        Rope rope = Rope.builder().build();
+        for (int i = 0; i < 100000; i++)
+            rope = Rope.builder().append(rope).append("x").build();
+        assertThat(rope.segmentCount(), is(100000));
+        assertThat(rope.length(), is(100000));
+    }
+
+    @Test
+    public void ropesBuiltFromTheSamePrefixStayApart() throws Exception {
+        Rope prefix = Rope.builder().append("a").build();
+        Rope first = Rope.builder().append(prefix).append("b").build();
+        Rope second = Rope.builder().append(prefix).append("c").build();
+        assertThat(prefix.toString(), is("a"));
+        assertThat(first.toString(), is("ab"));
+        assertThat(second.toString(), is("ac"));
+    }
+
+    @Test
+    public void writesEverySegment() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Rope.builder().append("Hello").append(", ").append("world").build().write(outputStream);
+        assertThat(outputStream.toString(), is("Hello, world"));
+    }
+
+    @Test
+    public void behavesAsACharSequence() throws Exception {
+        Rope rope = Rope.builder().append("ab").append("cd").build();
+        assertThat(rope.charAt(2), is('c'));
+        assertThat(rope.subSequence(1, 3).toString(), is("bc"));
+        assertThat(rope.equals(Rope.builder().append("abcd").build()), is(true));
+    }
+
+    @Test
+    public void flattenOnlyTouchesRopes() throws Exception {
+        assertThat(Rope.flatten(Rope.builder().append("a").build()), is((Object) "a"));
+        assertThat(Rope.flatten(1), is((Object) 1));
+    }
+}
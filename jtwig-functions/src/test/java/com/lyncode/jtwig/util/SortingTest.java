@@ -0,0 +1,126 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.util;
+
+import com.lyncode.jtwig.functions.exceptions.FunctionException;
+import com.lyncode.jtwig.functions.util.Sorting;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.lyncode.jtwig.functions.util.Sorting.groupedBy;
+import static com.lyncode.jtwig.functions.util.Sorting.sorted;
+import static com.lyncode.jtwig.functions.util.Sorting.sortedBy;
+import static com.lyncode.jtwig.functions.util.Sorting.unique;
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class SortingTest {
+    @Test
+    public void sortsNaturally() throws Exception {
+        assertThat(sorted(asList((Object) 3, null, 1.5, 2)), is(asList((Object) null, 1.5, 2, 3)));
+        assertThat(sorted(asList((Object) "b", "c", "a")), is(asList((Object) "a", "b", "c")));
+    }
+
+    @Test
+    public void mixedValuesAreTotallyOrdered() throws Exception {
+        assertThat(sorted(asList((Object) "9", 10, null, "10", 9L, 9.5, true)),
+                is(asList((Object) null, 9L, 9.5, 10, "10", "9", true)));
+
+        Random random = new Random(42);
+        for (int run = 0; run < 200; run++) {
+            List<Object> list = new ArrayList<Object>();
+            for (int i = 0; i < 100; i++) {
+                int value = random.nextInt(50);
+                list.add(random.nextBoolean() ? (Object) value : String.valueOf(value));
+            }
+            List<Object> result = sorted(list);
+            for (int i = 1; i < result.size(); i++)
+                assertThat(inOrder(result.get(i - 1), result.get(i)), is(true));
+        }
+    }
+
+    @Test
+    public void mapMethodsComeBeforeKeysLikeInTemplates() throws Exception {
+        Map<String, Object> first = new HashMap<String, Object>(), second = new HashMap<String, Object>();
+        first.put("empty", 2);
+        second.put("empty", 1);
+        assertThat(sortedBy(asList((Object) first, second), "empty"), is(asList((Object) first, second)));
+    }
+
+    @Test
+    public void sortsByPropertyKeepingTheOrderOfEqualKeys() throws Exception {
+        Product a = new Product("a", 2), b = new Product("b", 1), c = new Product("c", 2);
+        assertThat(sortedBy(asList((Object) a, b, c), "price"), is(asList((Object) b, a, c)));
+    }
+
+    @Test
+    public void bigListsAreSortedToo() throws Exception {
+        List<Object> list = new ArrayList<Object>();
+        for (int i = Sorting.PARALLEL_THRESHOLD * 2; i > 0; i--)
+            list.add(new Product("p" + i, i));
+        List<Object> result = sortedBy(list, "price");
+        for (int i = 0; i < result.size(); i++)
+            assertThat(((Product) result.get(i)).price, is(i + 1));
+    }
+
+    @Test
+    public void groupsByPropertyInOrderOfAppearance() throws Exception {
+        Product a = new Product("a", 2), b = new Product("b", 1), c = new Product("c", 2);
+        Map<Object, List<Object>> groups = groupedBy(asList((Object) a, b, c), "price");
+        assertThat(new ArrayList<Object>(groups.keySet()), is(asList((Object) 2, 1)));
+        assertThat(groups.get(2), is(asList((Object) a, c)));
+        assertThat(groups.get(1), is(asList((Object) b)));
+    }
+
+    @Test
+    public void uniqueKeepsFirstOccurrences() throws Exception {
+        List<Object> list = asList((Object) 1, 2, 3);
+        assertThat(unique(list), is(sameInstance(list)));
+        assertThat(unique(asList((Object) 1, 2, 1, 3, 2)), is(asList((Object) 1, 2, 3)));
+    }
+
+    @Test(expected = FunctionException.class)
+    public void unknownProperty() throws Exception {
+        sortedBy(asList((Object) new Product("a", 1)), "weight");
+    }
+
+    private static boolean inOrder(Object a, Object b) {
+        if (a instanceof Integer) return !(b instanceof Integer) || (Integer) a <= (Integer) b;
+        return b instanceof String && ((String) a).compareTo((String) b) <= 0;
+    }
+
+    public static class Product {
+        private final String name;
+        public final int price;
+
+        public Product(String name, int price) {
+            this.name = name;
+            this.price = price;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
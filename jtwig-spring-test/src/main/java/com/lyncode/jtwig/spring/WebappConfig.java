@@ -42,6 +42,7 @@ import static com.lyncode.jtwig.functions.builders.FunctionDeclarationBuilder.aF
 import static com.lyncode.jtwig.functions.builders.FunctionRepositoryBuilder.aFunctionRepositoryExtending;
 import static com.lyncode.jtwig.functions.repository.WebFunctionRepository.springMvcFunctionRepository;
 import static com.lyncode.jtwig.functions.util.Requirements.requires;
+import static java.util.Collections.singletonMap;
 import static java.util.Locale.ENGLISH;
 import static org.hamcrest.CoreMatchers.equalTo;
 
@@ -56,6 +57,7 @@ public class WebappConfig extends WebMvcConfigurerAdapter {
         viewResolver.setPrefix("/WEB-INF/views/");
         viewResolver.setSuffix(".twig.html");
         viewResolver.setTheme("default");
+        viewResolver.setCachedPages(singletonMap("cache/page", "name"));
         viewResolver.setFunctionRepository(
                 aFunctionRepositoryExtending(springMvcFunctionRepository())
                         .withFunction(aFunction(constant()).withName("other").andAlias("constant"))
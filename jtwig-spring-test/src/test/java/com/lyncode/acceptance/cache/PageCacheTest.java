@@ -0,0 +1,113 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.acceptance.cache;
+
+import com.lyncode.acceptance.AbstractViewTest;
+import com.lyncode.jtwig.mvc.JtwigViewResolver;
+import com.lyncode.jtwig.services.api.ModelMapFiller;
+import com.lyncode.jtwig.services.api.ViewShownResolver;
+import org.hamcrest.Matcher;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.util.NestedServletException;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+
+public class PageCacheTest extends AbstractViewTest {
+    private static final Counter counter = new Counter();
+
+    @Autowired
+    private JtwigViewResolver jtwigViewResolver;
+
+    @Autowired
+    private ViewShownResolver viewShownResolver;
+
+    @Autowired
+    private ModelMapFiller filler;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Override
+    protected void given(ModelMapFiller modelMap) {
+        modelMap.addAttribute("name", "a");
+        modelMap.addAttribute("counter", counter);
+    }
+
+    @Override
+    protected String forView() {
+        return "cache/page";
+    }
+
+    @Override
+    protected Matcher<? super String> contentMatcher() {
+        return equalTo("a1");
+    }
+
+    @Test
+    public void servesTheRenderedPageAgain() throws Exception {
+        long hits = jtwigViewResolver.getPageCacheStats().hitCount();
+        test();
+        test();
+        assertThat(counter.value, is(1));
+        assertThat(jtwigViewResolver.getPageCacheStats().hitCount() - hits >= 1, is(true));
+    }
+
+    @Test
+    public void valuesAreKeyedByTypeAndText() throws Exception {
+        Counter counter = new Counter();
+        render("7", counter).andExpect(content().string("71"));
+        render(7, counter).andExpect(content().string("72"));
+        render("7", counter).andExpect(content().string("71"));
+    }
+
+    @Test
+    public void otherValuesAreRejected() throws Exception {
+        try {
+            render(new Object(), new Counter());
+            fail();
+        } catch (NestedServletException e) {
+            assertThat(e.getCause(), instanceOf(IllegalArgumentException.class));
+        }
+    }
+
+    private ResultActions render(Object name, Counter counter) throws Exception {
+        filler.clean();
+        filler.addAttribute("name", name);
+        filler.addAttribute("counter", counter);
+        viewShownResolver.setView(forView());
+        return MockMvcBuilders.webAppContextSetup(webApplicationContext).build()
+                .perform(get("/"));
+    }
+
+    public static class Counter {
+        private int value;
+
+        public int getNext() {
+            return ++value;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.acceptance.load;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Performs a request repeatedly on a number of threads, measuring
+ * throughput, latency and allocation.
+ */
+public class LoadHarness {
+    public interface Request {
+        void perform() throws Exception;
+    }
+
+    private final int requestsPerThread;
+
+    public LoadHarness(int requestsPerThread) {
+        this.requestsPerThread = requestsPerThread;
+    }
+
+    public LoadResult run(int threads, final Request request) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            List<Future<Worker>> workers = new ArrayList<Future<Worker>>();
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(new Callable<Worker>() {
+                    @Override
+                    public Worker call() throws Exception {
+                        Worker worker = new Worker();
+                        start.await();
+                        worker.run(request);
+                        return worker;
+                    }
+                }));
+            }
+
+            long begin = System.nanoTime();
+            start.countDown();
+            long[] latencies = new long[threads * requestsPerThread];
+            long allocated = 0;
+            int offset = 0;
+            for (Future<Worker> future : workers) {
+                Worker worker = future.get();
+                System.arraycopy(worker.latencies, 0, latencies, offset, requestsPerThread);
+                offset += requestsPerThread;
+                allocated = allocated < 0 || worker.allocated < 0 ? -1 : allocated + worker.allocated;
+            }
+            long elapsed = System.nanoTime() - begin;
+
+            Arrays.sort(latencies);
+            return new LoadResult(threads, latencies.length, elapsed,
+                    percentile(latencies, 0.5), percentile(latencies, 0.99),
+                    allocated < 0 ? -1 : allocated / latencies.length);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private class Worker {
+        private final long[] latencies = new long[requestsPerThread];
+        private long allocated;
+
+        private void run(Request request) throws Exception {
+            long allocatedBefore = allocatedBytes();
+            for (int i = 0; i < requestsPerThread; i++) {
+                long start = System.nanoTime();
+                request.perform();
+                latencies[i] = System.nanoTime() - start;
+            }
+            long allocatedAfter = allocatedBytes();
+            allocated = allocatedBefore < 0 ? -1 : allocatedAfter - allocatedBefore;
+        }
+    }
+
+    /**
+     * Bytes allocated so far by the current thread, -1 if the JVM can't tell.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean)
+            return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        return -1;
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.acceptance.load;
+
+import java.util.concurrent.TimeUnit;
+
+public class LoadResult {
+    public static final String HEADER = String.format("%8s %10s %12s %10s %10s %14s", "threads", "requests", "requests/s", "p50 ms", "p99 ms", "bytes/request");
+
+    private final int threads;
+    private final int requests;
+    private final long elapsed;
+    private final long median;
+    private final long p99;
+    private final long allocatedPerRequest;
+
+    public LoadResult(int threads, int requests, long elapsed, long median, long p99, long allocatedPerRequest) {
+        this.threads = threads;
+        this.requests = requests;
+        this.elapsed = elapsed;
+        this.median = median;
+        this.p99 = p99;
+        this.allocatedPerRequest = allocatedPerRequest;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getRequests() {
+        return requests;
+    }
+
+    public double getThroughput() {
+        return requests / (elapsed / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public double getMedianMillis() {
+        return median / 1000000.0;
+    }
+
+    public double getP99Millis() {
+        return p99 / 1000000.0;
+    }
+
+    /**
+     * Bytes allocated per request, -1 if unknown.
+     */
+    public long getAllocatedPerRequest() {
+        return allocatedPerRequest;
+    }
+
+    public String toString() {
+        return String.format("%8d %10d %12.1f %10.3f %10.3f %14d", threads, requests, getThroughput(), getMedianMillis(), getP99Millis(), allocatedPerRequest);
+    }
+}
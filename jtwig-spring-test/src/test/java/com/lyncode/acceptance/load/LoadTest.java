@@ -0,0 +1,162 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.acceptance.load;
+
+import com.lyncode.jtwig.services.api.ModelMapFiller;
+import com.lyncode.jtwig.services.impl.InMemoryMessageSource;
+import com.lyncode.jtwig.services.impl.TestViewShownResolver;
+import com.lyncode.jtwig.spring.WebappConfig;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assume.assumeTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+
+/**
+ * Renders a page with a layout, includes, loops and translations through
+ * the whole view resolver path on an increasing number of threads. The
+ * load itself only runs when asked for, for instance with
+ * -Djtwig.load.threads=1,2,4,8,16,32,64 -Djtwig.load.requests=2000
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {WebappConfig.class})
+@WebAppConfiguration("src/main/webapp")
+public class LoadTest {
+    private static Logger log = LogManager.getLogger(LoadTest.class);
+
+    private static final String THREADS = System.getProperty("jtwig.load.threads");
+    private static final int REQUESTS = Integer.getInteger("jtwig.load.requests", 50);
+    private static final int PRODUCTS = 50;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private TestViewShownResolver viewShownResolver;
+
+    @Autowired
+    private ModelMapFiller filler;
+
+    @Autowired
+    private InMemoryMessageSource messageSource;
+
+    private MockMvc mockMvc;
+
+    @Before
+    public void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        messageSource
+                .add("load.title", "Shop")
+                .add("load.price", "Price: {0}")
+                .add("load.footer", "Copyright {0}");
+        filler.clean();
+        filler.addAttribute("products", products())
+                .addAttribute("links", Arrays.asList("home", "products", "about"))
+                .addAttribute("year", "2014");
+        viewShownResolver.setView("load/page");
+    }
+
+    @Test
+    public void rendersThePage() throws Exception {
+        String page = render();
+        assertThat(page, containsString("<title>Shop</title>"));
+        assertThat(page, containsString("<span>Product 49</span>"));
+        assertThat(page, containsString("/public/default/img/product-49.png"));
+        assertThat(page, containsString("Price: 9.99"));
+        assertThat(page, containsString("Copyright 2014"));
+    }
+
+    @Test
+    public void rendersThePageUnderLoad() throws Exception {
+        assumeTrue(THREADS != null);
+
+        final String page = render();
+        LoadHarness.Request request = new LoadHarness.Request() {
+            @Override
+            public void perform() throws Exception {
+                mockMvc.perform(get("/")).andExpect(content().string(page));
+            }
+        };
+
+        LoadHarness harness = new LoadHarness(REQUESTS);
+        harness.run(1, request);
+
+        StringBuilder report = new StringBuilder("Load test results (bytes per request include MockMvc and checking the content)\n")
+                .append(LoadResult.HEADER).append('\n');
+        for (String threads : THREADS.split(","))
+            report.append(harness.run(Integer.parseInt(threads.trim()), request)).append('\n');
+        log.info(report);
+    }
+
+    private String render() throws Exception {
+        return mockMvc.perform(get("/")).andReturn().getResponse().getContentAsString();
+    }
+
+    private static List<Product> products() {
+        List<Product> products = new ArrayList<Product>();
+        for (int i = 0; i < PRODUCTS; i++)
+            products.add(new Product("Product " + i, "img/product-" + i + ".png", 9.99 + i, Arrays.asList("new", "sale")));
+        return products;
+    }
+
+    public static class Product {
+        private final String name;
+        private final String image;
+        private final double price;
+        private final List<String> tags;
+
+        public Product(String name, String image, double price, List<String> tags) {
+            this.name = name;
+            this.image = image;
+            this.price = price;
+            this.tags = tags;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getImage() {
+            return image;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+    }
+}
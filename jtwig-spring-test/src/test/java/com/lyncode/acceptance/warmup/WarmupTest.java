@@ -0,0 +1,84 @@
+/**
+ * Copyright 2012 Lyncode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.acceptance.warmup;
+
+import com.google.common.cache.CacheStats;
+import com.lyncode.jtwig.mvc.JtwigViewResolver;
+import com.lyncode.jtwig.spring.WebappConfig;
+import com.lyncode.jtwig.warmup.WarmupReport;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {WebappConfig.class})
+@WebAppConfiguration("src/main/webapp")
+public class WarmupTest {
+    private static final String PAGE = "/WEB-INF/views/default/load/page.twig.html";
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    private JtwigViewResolver viewResolver;
+
+    @Before
+    public void setUp() {
+        viewResolver = new JtwigViewResolver();
+        viewResolver.setPrefix("/WEB-INF/views/");
+        viewResolver.setSuffix(".twig.html");
+        viewResolver.setTheme("default");
+        viewResolver.setCached(true);
+        viewResolver.setApplicationContext(webApplicationContext);
+    }
+
+    @Test
+    public void compilesEveryTemplateUnderThePrefix() throws Exception {
+        WarmupReport report = viewResolver.warmup();
+        assertThat(report.getCompiled(), hasKey(PAGE));
+        assertThat(report.getCompiled().containsKey("/WEB-INF/views/default/cache/page.twig.html"), is(true));
+    }
+
+    @Test
+    public void coldTemplateCountsASingleMiss() throws Exception {
+        viewResolver.getContent(PAGE);
+        CacheStats stats = viewResolver.getCacheStats();
+
+        assertThat(stats.missCount(), is(1L));
+        assertThat(stats.hitCount(), is(0L));
+    }
+
+    @Test
+    public void warmedTemplatesAreServedFromTheCache() throws Exception {
+        WarmupReport report = viewResolver.warmup();
+        CacheStats before = viewResolver.getCacheStats();
+        for (String url : report.getCompiled().keySet())
+            viewResolver.getContent(url);
+        CacheStats after = viewResolver.getCacheStats().minus(before);
+
+        assertThat(after.hitCount(), is((long) report.getCompiled().size()));
+        assertThat(after.missCount(), is(0L));
+    }
+}
@@ -19,15 +19,30 @@ package com.lyncode.jtwig.functions;
 import com.lyncode.jtwig.functions.exceptions.FunctionException;
 import com.lyncode.jtwig.util.LocalThreadHolder;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 
+/**
+ * A function with injected dependencies. It's wired once, by the view
+ * resolver using it or otherwise on its first call, request scoped
+ * dependencies (like the HttpServletRequest) being injected as proxies.
+ */
 public abstract class AutowiredFunction implements Function {
+    private volatile boolean wired = false;
+
     public AutowiredFunction () {
         super();
     }
 
+    public synchronized void autowire (AutowireCapableBeanFactory beanFactory) throws BeansException {
+        if (wired) return;
+        beanFactory.autowireBean(this);
+        wired = true;
+    }
+
     public Object execute (Object... arguments) throws FunctionException {
         try {
-            LocalThreadHolder.getApplicationContext().getAutowireCapableBeanFactory().autowireBean(this);
+            if (!wired)
+                autowire(LocalThreadHolder.getApplicationContext().getAutowireCapableBeanFactory());
             return call(arguments);
         } catch (BeansException e) {
             throw new FunctionException(e);
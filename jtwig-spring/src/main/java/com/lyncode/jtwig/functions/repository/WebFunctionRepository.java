@@ -20,6 +20,9 @@ import com.lyncode.jtwig.functions.Asset;
 import com.lyncode.jtwig.functions.Path;
 import com.lyncode.jtwig.functions.Translate;
 
+import static com.lyncode.jtwig.functions.repository.FunctionDeclaration.Scope.LOCALE;
+import static com.lyncode.jtwig.functions.repository.FunctionDeclaration.Scope.REQUEST;
+
 public class WebFunctionRepository extends AbstractFunctionRepository {
 
     public static WebFunctionRepository springMvcFunctionRepository() {
@@ -28,9 +31,9 @@ public class WebFunctionRepository extends AbstractFunctionRepository {
 
     public WebFunctionRepository (FunctionDeclaration... declarations) {
         super(
-            new FunctionDeclaration(new Translate(), "translate", "message", "trans"),
-            new FunctionDeclaration(new Asset(), "asset"),
-            new FunctionDeclaration(new Path(), "path")
+            new FunctionDeclaration(new Translate(), "translate", "message", "trans").pure(LOCALE),
+            new FunctionDeclaration(new Asset(), "asset").pure(REQUEST),
+            new FunctionDeclaration(new Path(), "path").pure(REQUEST)
         );
 
         addFunctions(declarations);
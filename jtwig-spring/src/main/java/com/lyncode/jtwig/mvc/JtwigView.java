@@ -16,31 +16,37 @@
 
 package com.lyncode.jtwig.mvc;
 
+import com.google.common.io.CountingOutputStream;
 import com.lyncode.jtwig.JtwigContext;
 import com.lyncode.jtwig.JtwigModelMap;
-import com.lyncode.jtwig.JtwigTemplate;
+import com.lyncode.jtwig.cache.FragmentCache;
 import com.lyncode.jtwig.exception.CompileException;
 import com.lyncode.jtwig.exception.ParseException;
-import com.lyncode.jtwig.resource.WebJtwigResource;
+import com.lyncode.jtwig.exception.RenderException;
+import com.lyncode.jtwig.metrics.Metrics;
 import com.lyncode.jtwig.tree.content.Content;
+import com.lyncode.jtwig.util.ChunkedOutputStream;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.web.servlet.support.RequestContextUtils;
 import org.springframework.web.servlet.view.AbstractTemplateView;
 
 import javax.servlet.*;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
 import java.util.Collections;
 import java.util.Enumeration;
-import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 public class JtwigView extends AbstractTemplateView {
     private static Logger log = LogManager.getLogger(JtwigView.class);
 
-    private Map<String, Content> compiledTemplates = new HashMap<String, Content>();
+    private JtwigViewResolver viewResolver;
 
     protected String getEncoding() {
         return getViewResolver().getEncoding();
@@ -49,8 +55,14 @@ public class JtwigView extends AbstractTemplateView {
         return getViewResolver().getTheme();
     }
 
+    void setViewResolver(JtwigViewResolver viewResolver) {
+        this.viewResolver = viewResolver;
+    }
+
     private JtwigViewResolver getViewResolver() {
-        return this.getApplicationContext().getBean(JtwigViewResolver.class);
+        if (viewResolver == null)
+            viewResolver = this.getApplicationContext().getBean(JtwigViewResolver.class);
+        return viewResolver;
     }
 
     protected void initApplicationContext() throws BeansException {
@@ -64,10 +76,56 @@ public class JtwigView extends AbstractTemplateView {
     }
 
     @Override
-    protected void renderMergedTemplateModel(Map<String, Object> model,
-                                             HttpServletRequest request, HttpServletResponse response)
+    protected void renderMergedTemplateModel(final Map<String, Object> model,
+                                             final HttpServletRequest request, HttpServletResponse response)
             throws Exception {
 
+        response.setContentType(this.getContentType());
+        if (this.getEncoding() != null)
+            response.setCharacterEncoding(this.getEncoding());
+
+        long start = Metrics.start();
+        final Locale locale = RequestContextUtils.getLocale(request);
+        List<String> cachedAttributes = getViewResolver().getCachedPageAttributes(getBeanName());
+        if (cachedAttributes != null) {
+            final boolean[] rendered = new boolean[1];
+            byte[] page = getViewResolver().getPageCache().get(pageKey(cachedAttributes, model, locale), getViewResolver().getPageCacheTtl() * 1000L, new FragmentCache.Renderer() {
+                @Override
+                public byte[] render() throws RenderException {
+                    rendered[0] = true;
+                    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                    try {
+                        getContent(request).render(outputStream, context(model, request, locale));
+                    } catch (CompileException e) {
+                        throw new RenderException(e);
+                    } catch (ParseException e) {
+                        throw new RenderException(e);
+                    }
+                    return outputStream.toByteArray();
+                }
+            });
+            response.setContentLength(page.length);
+            response.getOutputStream().write(page);
+            Metrics.metrics().cacheAccessed("page", !rendered[0]);
+            if (start != 0) Metrics.metrics().rendered(getUrl(), System.nanoTime() - start, page.length);
+            return;
+        }
+
+        Content content = getContent(request);
+        JtwigContext context = context(model, request, locale);
+        ChunkedOutputStream outputStream = new ChunkedOutputStream(response.getOutputStream(), getViewResolver().getChunkSize());
+        if (start == 0) {
+            content.render(outputStream, context);
+            outputStream.flush();
+            return;
+        }
+        CountingOutputStream countingOutputStream = new CountingOutputStream(outputStream);
+        content.render(countingOutputStream, context);
+        outputStream.flush();
+        Metrics.metrics().rendered(getUrl(), System.nanoTime() - start, countingOutputStream.getCount());
+    }
+
+    private JtwigContext context(Map<String, Object> model, HttpServletRequest request, Locale locale) {
         // Adding model information
         JtwigModelMap modelMap = new JtwigModelMap()
                 .add(model)
@@ -80,26 +138,46 @@ public class JtwigView extends AbstractTemplateView {
             log.debug("Model: "+modelMap);
         }
 
+        return new JtwigContext(modelMap, getViewResolver().getFunctionRepository())
+                .withLocale(locale)
+                .withFragmentCache(getViewResolver().getFragmentCache())
+                .withLimits(getViewResolver().getRenderLimits());
+    }
 
-        response.setContentType(this.getContentType());
-        if (this.getEncoding() != null)
-            response.setCharacterEncoding(this.getEncoding());
+    /**
+     * The page cache key, built from the text of the attributes so the cache
+     * holds no model objects, which could be mutated or pin large graphs.
+     * Only null, strings, numbers, booleans, characters and enums are keyed.
+     */
+    private String pageKey(List<String> attributes, Map<String, Object> model, Locale locale) {
+        StringBuilder key = new StringBuilder();
+        appendKeyPart(key, getUrl());
+        appendKeyPart(key, getTheme());
+        appendKeyPart(key, String.valueOf(locale));
+        for (String attribute : attributes)
+            appendKeyPart(key, keyValue(attribute, model.get(attribute)));
+        return key.toString();
+    }
 
-        getContent(request).render(response.getOutputStream(), new JtwigContext(modelMap, getViewResolver().getFunctionRepository()));
+    private static String keyValue(String attribute, Object value) {
+        if (value == null)
+            return null;
+        if (value instanceof Enum)
+            return ((Enum<?>) value).getDeclaringClass().getName() + ":" + ((Enum<?>) value).name();
+        if (value instanceof String || value instanceof Number || value instanceof Boolean || value instanceof Character)
+            return value.getClass().getName() + ":" + value;
+        throw new IllegalArgumentException("Cached page attribute '" + attribute + "' must be a string, number, boolean, character or enum, got " + value.getClass().getName());
     }
 
-    public Content getContent(HttpServletRequest request) throws CompileException, ParseException {
-        if (getViewResolver().isCached()) {
-            if (!compiledTemplates.containsKey(getUrl())) {
-                compiledTemplates.put(getUrl(), getCompiledJtwigTemplate(request));
-            }
-            return compiledTemplates.get(getUrl());
-        }
-        return getCompiledJtwigTemplate(request);
+    private static void appendKeyPart(StringBuilder key, String part) {
+        if (part == null)
+            key.append('-');
+        else
+            key.append(part.length()).append(':').append(part);
     }
 
-    private Content getCompiledJtwigTemplate(HttpServletRequest request) throws ParseException, CompileException {
-        return new JtwigTemplate(new WebJtwigResource(request.getSession().getServletContext(), getUrl())).compile();
+    public Content getContent(HttpServletRequest request) throws CompileException, ParseException {
+        return getViewResolver().getContent(getUrl());
     }
 
     @SuppressWarnings("serial")
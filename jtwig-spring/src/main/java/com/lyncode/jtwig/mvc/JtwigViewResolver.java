@@ -16,17 +16,54 @@
 
 package com.lyncode.jtwig.mvc;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.lyncode.jtwig.JtwigTemplate;
+import com.lyncode.jtwig.budget.RenderLimits;
+import com.lyncode.jtwig.cache.FragmentCache;
+import com.lyncode.jtwig.cache.InMemoryFragmentCache;
+import com.lyncode.jtwig.exception.CompileException;
+import com.lyncode.jtwig.exception.ParseException;
+import com.lyncode.jtwig.functions.AutowiredFunction;
+import com.lyncode.jtwig.functions.Function;
 import com.lyncode.jtwig.functions.builders.FunctionRepositoryBuilder;
 import com.lyncode.jtwig.functions.repository.AbstractFunctionRepository;
 import com.lyncode.jtwig.functions.repository.WebFunctionRepository;
+import com.lyncode.jtwig.metrics.Metrics;
+import com.lyncode.jtwig.resource.JtwigResource;
+import com.lyncode.jtwig.resource.WebJtwigResource;
 import com.lyncode.jtwig.services.api.theme.ThemePrefixResolver;
+import com.lyncode.jtwig.tree.content.Content;
+import com.lyncode.jtwig.util.ChunkedOutputStream;
+import com.lyncode.jtwig.warmup.TemplateWarmup;
+import com.lyncode.jtwig.warmup.WarmupReport;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.web.servlet.view.AbstractTemplateViewResolver;
+import org.springframework.web.servlet.view.AbstractUrlBasedView;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 public class JtwigViewResolver extends AbstractTemplateViewResolver {
+    private static Logger log = LogManager.getLogger(JtwigViewResolver.class);
+    public static final long DEFAULT_CACHE_MAXIMUM_SIZE = 1000;
+    public static final long DEFAULT_PAGE_CACHE_MAXIMUM_BYTES = 32 * 1024 * 1024;
+    public static final int DEFAULT_PAGE_CACHE_TTL = 60;
+
     private static ThemePrefixResolver defaultPrefixResolver() {
         return new ThemePrefixResolver() {
             @Override
@@ -39,19 +76,166 @@ public class JtwigViewResolver extends AbstractTemplateViewResolver {
     private String encoding;
     private String theme;
     private boolean cached;
+    private boolean warmup;
+    private int chunkSize = ChunkedOutputStream.DEFAULT_CHUNK_SIZE;
+    private FragmentCache fragmentCache = InMemoryFragmentCache.defaultFragmentCache();
+    private RenderLimits renderLimits;
     private ThemePrefixResolver prefixResolver;
     private AbstractFunctionRepository abstractFunctionRepository = new WebFunctionRepository();
+    private AutowireCapableBeanFactory beanFactory;
+    private long cacheMaximumSize = DEFAULT_CACHE_MAXIMUM_SIZE;
+    private volatile Cache<TemplateKey, Content> compiledTemplates = compiledTemplates(cacheMaximumSize);
+    private Map<String, List<String>> cachedPages = new HashMap<String, List<String>>();
+    private int pageCacheTtl = DEFAULT_PAGE_CACHE_TTL;
+    private volatile InMemoryFragmentCache pageCache = new InMemoryFragmentCache(DEFAULT_PAGE_CACHE_MAXIMUM_BYTES);
 
     public JtwigViewResolver() {
         this.prefixResolver = defaultPrefixResolver();
         setViewClass(requiredViewClass());
     }
 
+    @Override
+    protected void initApplicationContext() {
+        super.initApplicationContext();
+        beanFactory = getApplicationContext().getAutowireCapableBeanFactory();
+        autowireFunctions();
+        if (warmup && !isCached()) {
+            log.warn("Jtwig warmup skipped, as compiled templates aren't cached");
+        } else if (warmup) {
+            try {
+                WarmupReport report = warmup();
+                log.info("Jtwig warmup: " + report);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     @Override
     protected Class<?> requiredViewClass() {
         return JtwigView.class;
     }
 
+    @Override
+    protected AbstractUrlBasedView buildView(String viewName) throws Exception {
+        AbstractUrlBasedView view = super.buildView(viewName);
+        if (view instanceof JtwigView)
+            ((JtwigView) view).setViewResolver(this);
+        return view;
+    }
+
+    /**
+     * The compiled template at the given url. When caching, concurrent
+     * requests for the same template wait for a single compilation.
+     */
+    public Content getContent(String url) throws CompileException, ParseException {
+        if (!isCached())
+            return compile(url);
+        try {
+            final TemplateKey key = new TemplateKey(getPrefix(), url);
+            final boolean[] compiled = new boolean[1];
+            Content content = compiledTemplates.get(key, new Callable<Content>() {
+                @Override
+                public Content call() throws Exception {
+                    compiled[0] = true;
+                    return compile(key.url);
+                }
+            });
+            Metrics.metrics().cacheAccessed("template", !compiled[0]);
+            return content;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CompileException) throw (CompileException) e.getCause();
+            if (e.getCause() instanceof ParseException) throw (ParseException) e.getCause();
+            throw new CompileException(e.getCause());
+        } catch (UncheckedExecutionException e) {
+            throw new CompileException(e.getCause());
+        }
+    }
+
+    /**
+     * Compiles, in parallel, every template under the prefix into the cache.
+     */
+    public WarmupReport warmup() throws InterruptedException {
+        Map<String, JtwigResource> templates = new TreeMap<String, JtwigResource>();
+        addTemplates(getPrefix(), templates);
+        return new TemplateWarmup().warmup(templates, new TemplateWarmup.Compiler() {
+            @Override
+            public Content compile(String name, JtwigResource resource) throws ParseException, CompileException {
+                return getContent(name);
+            }
+        });
+    }
+
+    private void addTemplates(String path, Map<String, JtwigResource> templates) {
+        // a raw Set in the servlet API, holding strings
+        Set<?> paths = getServletContext().getResourcePaths(path.endsWith("/") ? path : path + "/");
+        if (paths == null) return;
+        for (Object element : paths) {
+            String child = (String) element;
+            if (child.endsWith("/"))
+                addTemplates(child, templates);
+            else if (child.endsWith(getSuffix()))
+                templates.put(child, new WebJtwigResource(getServletContext(), child));
+        }
+    }
+
+    public CacheStats getCacheStats() {
+        return compiledTemplates.stats();
+    }
+
+    public void clearCache() {
+        compiledTemplates.invalidateAll();
+        pageCache.invalidateAll();
+    }
+
+    /**
+     * Views whose whole output is cached, by view name, each mapped to the
+     * comma separated model attributes the output depends on. The page is
+     * rendered once per distinct value of those attributes (and locale).
+     * The attributes must be null, strings, numbers, booleans, characters or
+     * enums, as the page is keyed by their text.
+     */
+    public void setCachedPages(Map<String, String> cachedPages) {
+        Map<String, List<String>> attributes = new HashMap<String, List<String>>();
+        for (Map.Entry<String, String> entry : cachedPages.entrySet()) {
+            List<String> names = new ArrayList<String>();
+            for (String name : StringUtils.split(StringUtils.defaultString(entry.getValue()), ','))
+                if (isNotBlank(name)) names.add(name.trim());
+            attributes.put(entry.getKey(), names);
+        }
+        this.cachedPages = attributes;
+    }
+
+    /**
+     * The model attributes a cached view depends on, null if the view isn't cached.
+     */
+    List<String> getCachedPageAttributes(String viewName) {
+        return cachedPages.get(viewName);
+    }
+
+    public int getPageCacheTtl() {
+        return pageCacheTtl;
+    }
+
+    /**
+     * Seconds a cached page is served for, zero to keep it until evicted.
+     */
+    public void setPageCacheTtl(int pageCacheTtl) {
+        this.pageCacheTtl = pageCacheTtl;
+    }
+
+    public void setPageCacheMaximumBytes(long pageCacheMaximumBytes) {
+        this.pageCache = new InMemoryFragmentCache(pageCacheMaximumBytes);
+    }
+
+    FragmentCache getPageCache() {
+        return pageCache;
+    }
+
+    public CacheStats getPageCacheStats() {
+        return pageCache.stats();
+    }
+
     @Override
     protected String getPrefix() {
         if (hasTheme())
@@ -83,10 +267,70 @@ public class JtwigViewResolver extends AbstractTemplateViewResolver {
         this.cached = cached;
     }
 
+    public boolean isWarmup() {
+        return warmup;
+    }
+
+    /**
+     * Whether to compile every template on startup, see {@link #warmup()}.
+     * Only applies when caching, as the compiled templates are kept nowhere else.
+     */
+    public void setWarmup(boolean warmup) {
+        this.warmup = warmup;
+    }
+
+    public long getCacheMaximumSize() {
+        return cacheMaximumSize;
+    }
+
+    /**
+     * The maximum number of compiled templates kept, least recently used
+     * ones being evicted first. Changing it clears the cache.
+     */
+    public void setCacheMaximumSize(long cacheMaximumSize) {
+        this.cacheMaximumSize = cacheMaximumSize;
+        this.compiledTemplates = compiledTemplates(cacheMaximumSize);
+    }
+
     public void setTheme(String theme) {
         this.theme = theme;
     }
 
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Bytes rendered before they're sent to the client, besides explicit
+     * flush tags. Must be positive.
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) throw new IllegalArgumentException("Chunk size must be positive, got " + chunkSize);
+        this.chunkSize = chunkSize;
+    }
+
+    public FragmentCache getFragmentCache() {
+        return fragmentCache;
+    }
+
+    /**
+     * Storage for the output of cache tags, shared by every view.
+     */
+    public void setFragmentCache(FragmentCache fragmentCache) {
+        this.fragmentCache = fragmentCache;
+    }
+
+    public RenderLimits getRenderLimits() {
+        return renderLimits;
+    }
+
+    /**
+     * Resources each view render may use, unlimited by default.
+     */
+    public void setRenderLimits(RenderLimits renderLimits) {
+        this.renderLimits = renderLimits;
+    }
+
     public String getEncoding() {
         return encoding;
     }
@@ -97,12 +341,55 @@ public class JtwigViewResolver extends AbstractTemplateViewResolver {
 
     public void setFunctionRepository(AbstractFunctionRepository abstractFunctionRepository) {
         this.abstractFunctionRepository = abstractFunctionRepository;
+        autowireFunctions();
     }
     public void setFunctionRepository(FunctionRepositoryBuilder functionRepository) {
-        this.abstractFunctionRepository = functionRepository.build();
+        setFunctionRepository(functionRepository.build());
     }
 
     public AbstractFunctionRepository getFunctionRepository() {
         return abstractFunctionRepository;
     }
+
+    private void autowireFunctions() {
+        if (beanFactory == null) return;
+        for (Function function : abstractFunctionRepository.getFunctions()) {
+            if (function instanceof AutowiredFunction)
+                ((AutowiredFunction) function).autowire(beanFactory);
+        }
+    }
+
+    private Content compile(String url) throws CompileException, ParseException {
+        return new JtwigTemplate(new WebJtwigResource(getServletContext(), url)).compile();
+    }
+
+    private static Cache<TemplateKey, Content> compiledTemplates(long maximumSize) {
+        return CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    private static class TemplateKey {
+        private final String prefix;
+        private final String url;
+
+        private TemplateKey(String prefix, String url) {
+            this.prefix = prefix;
+            this.url = url;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof TemplateKey)) return false;
+            TemplateKey other = (TemplateKey) o;
+            return (prefix == null ? other.prefix == null : prefix.equals(other.prefix)) && url.equals(other.url);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (prefix == null ? 0 : prefix.hashCode()) + url.hashCode();
+        }
+    }
 }
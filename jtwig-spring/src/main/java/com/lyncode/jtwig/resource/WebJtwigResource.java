@@ -43,4 +43,22 @@ public class WebJtwigResource implements JtwigResource {
         String relativeUrl = new File(new File(url).getParent(), relativePath).getPath();
         return new WebJtwigResource(servletContext, relativeUrl);
     }
+
+    @Override
+    public String toString() {
+        return url;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        WebJtwigResource that = (WebJtwigResource) o;
+        return servletContext == that.servletContext && url.equals(that.url);
+    }
+
+    @Override
+    public int hashCode() {
+        return url.hashCode();
+    }
 }